@@ -1,17 +1,29 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.ShareItServerAsyncClient;
+import ru.practicum.shareit.client.ShareItServerLoadBalancer;
+import ru.practicum.shareit.client.SingleFlight;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
@@ -19,44 +31,65 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(ShareItServerLoadBalancer loadBalancer, RestTemplateBuilder builder,
+                         HttpClient shareItServerHttpClient, ObjectProvider<ShareItServerAsyncClient> asyncClient,
+                         ObjectProvider<SingleFlight> singleFlight,
+                         ClientResilienceProperties resilience,
+                         MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
+                        .build(),
+                loadBalancer,
+                asyncClient.getIfAvailable(),
+                null,
+                singleFlight.getIfAvailable(),
+                resilience,
+                meterRegistry,
+                "bookings"
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                                                 String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?state={state}&from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllOwner(long ownerId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getAllOwner(long ownerId, BookingState state, int from, int size,
+                                                                 String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
+        ));
 
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", parameters, cursor), ownerId, parameters);
     }
 
-    public ResponseEntity<Object> update(long userId, long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
-}
\ No newline at end of file
+
+    public CompletableFuture<ResponseEntity<Object>> updateAll(long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportAllOwner(long ownerId) throws IOException {
+        return getStream("/owner/export", ownerId);
+    }
+}
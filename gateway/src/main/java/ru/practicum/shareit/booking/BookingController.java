@@ -6,13 +6,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -22,52 +29,71 @@ import javax.validation.constraints.PositiveOrZero;
 public class BookingController {
 
     private static final String REQUEST_HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final int MAX_DECISIONS = 1000;
     private final BookingClient bookingClient;
 
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookings(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
+                                                                 @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                                 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                                 @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                                 @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam).orElseThrow(() ->
                 new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> bookItem(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
+                                                              @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
-                                             @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) long userId,
+                                                                @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllOwner(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long ownerId,
-                                              @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
-                                              @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                              @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllOwner(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long ownerId,
+                                                                 @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
+                                                                 @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                                 @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                                                 @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(bookingState)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + bookingState));
-        log.info("GET запрос на получение списка всех бронирований c state {}, userId={}, from={}, size={}",
-                bookingState, ownerId, from, size);
-        return bookingClient.getAllOwner(ownerId, state, from, size);
+        log.info("GET запрос на получение списка всех бронирований c state {}, userId={}, from={}, size={}, cursor={}",
+                bookingState, ownerId, from, size, cursor);
+        return bookingClient.getAllOwner(ownerId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportAllOwner(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long ownerId)
+            throws IOException {
+        log.info("GET запрос на выгрузку всех бронирований владельца с id: {}", ownerId);
+        return bookingClient.exportAllOwner(ownerId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatus(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                               @PathVariable("bookingId") Long bookingId,
-                                               @RequestParam("approved") Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateStatus(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                  @PathVariable("bookingId") Long bookingId,
+                                                                  @RequestParam("approved") Boolean approved) {
         log.info("PATCH запрос на обновление статуса бронирования вещи : {} от владельца с id: {}", bookingId, userId);
         return bookingClient.update(userId, bookingId, approved);
     }
 
-}
\ No newline at end of file
+    @PatchMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> updateStatuses(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                    @RequestBody @NotEmpty @Size(max = MAX_DECISIONS)
+                                                                    List<@Valid BookingDecisionDto> decisions) {
+        log.info("PATCH запрос на пакетное обновление статусов {} бронирований от владельца с id: {}",
+                decisions.size(), userId);
+        return bookingClient.updateAll(userId, decisions);
+    }
+
+}
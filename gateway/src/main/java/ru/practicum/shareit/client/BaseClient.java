@@ -1,122 +1,433 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
 
+    private static final String REQUEST_HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
+    private static final String CLIENT_REQUESTS_METRIC = "gateway.client.requests";
+    private static final String STATUS_IO_ERROR = "IO_ERROR";
+
     protected final RestTemplate rest;
+    private final ShareItServerLoadBalancer loadBalancer;
+    @Nullable
+    private final ShareItServerAsyncClient asyncClient;
+    @Nullable
+    private final GatewayResponseCache responseCache;
+    @Nullable
+    private final SingleFlight singleFlight;
+    @Nullable
+    private final ClientResilience resilience;
+    private final MeterRegistry meterRegistry;
+    private final String clientName;
 
-    public BaseClient(RestTemplate rest) {
+    /**
+     * @param rest          клиент, раскрывающий пути запросов в относительные адреса, например /items/1;
+     *                      экземпляр сервера для каждого запроса выбирает {@code loadBalancer}
+     * @param asyncClient   неблокирующий клиент; если не задан, запросы выполняются через {@code rest}
+     *                      в потоке, обрабатывающем запрос к шлюзу
+     * @param responseCache кэш ответов для {@link #getCached}; если не задан, запросы не кэшируются
+     * @param singleFlight  объединение одинаковых одновременных GET запросов; если не задано, каждый запрос
+     *                      отправляется серверу
+     * @param resilience    настройки лимита одновременных запросов и выключателя, свои для каждого клиента
+     */
+    public BaseClient(RestTemplate rest, ShareItServerLoadBalancer loadBalancer,
+                      @Nullable ShareItServerAsyncClient asyncClient,
+                      @Nullable GatewayResponseCache responseCache, @Nullable SingleFlight singleFlight,
+                      ClientResilienceProperties resilience, MeterRegistry meterRegistry, String clientName) {
         this.rest = rest;
+        this.loadBalancer = loadBalancer;
+        this.asyncClient = asyncClient;
+        this.responseCache = responseCache;
+        this.singleFlight = singleFlight;
+        this.resilience = resilience.isEnabled() ? new ClientResilience(clientName, resilience, meterRegistry) : null;
+        this.meterRegistry = meterRegistry;
+        this.clientName = clientName;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * Отправляет GET запрос, ответ на который не зависит от пользователя, например поиск вещей.
+     * Одинаковые одновременные запросы разных пользователей отправляются серверу один раз.
+     * Сервер по id пользователя только проверяет, что он существует, поэтому неуспешный ответ
+     * не отдаётся другим пользователям: их запросы отправляются серверу заново. Запрос несуществующего
+     * пользователя, объединённый с успешным, получает успешный ответ.
+     */
+    protected CompletableFuture<ResponseEntity<Object>> getShared(String path, long userId,
+                                                                  Map<String, Object> parameters) {
+        return send(HttpMethod.GET, path, defaultHeaders(userId), parameters, null, false)
+                .thenApply(this::prepareGatewayResponse);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> getCached(String path) {
+        return getCached(path, null);
+    }
+
+    /**
+     * Отправляет GET запрос с If-None-Match, если ответ на него уже есть в кэше.
+     * На 304 клиенту отдаётся сохранённый ответ, новый ответ с ETag сохраняется в кэш.
+     */
+    protected CompletableFuture<ResponseEntity<Object>> getCached(String path, @Nullable Long userId) {
+        if (responseCache == null) {
+            return get(path, userId);
+        }
+        GatewayResponseCache.Key key = GatewayResponseCache.key(clientName, userId, path);
+        GatewayResponseCache.CachedResponse cached = responseCache.get(key);
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+        return send(HttpMethod.GET, path, headers, null, null, true)
+                .thenApply(response -> prepareGatewayResponse(responseCache.onResponse(key, cached, response)));
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Добавляет к запросу курсор следующей страницы, если клиент его передал.
+     *
+     * @param path       путь с параметрами запроса
+     * @param parameters изменяемые значения параметров
+     */
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return path;
+        }
+        parameters.put("cursor", cursor);
+        return path + "&cursor={cursor}";
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+    /**
+     * Отправляет POST запрос, копируя тело из потока без чтения его целиком в память.
+     * Для потоковой передачи у RestTemplate должна быть отключена буферизация тела запроса.
+     */
+    protected ResponseEntity<Object> postStream(String path, long userId, InputStream body, MediaType contentType) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().putAll(headers);
+            if (request instanceof StreamingHttpOutputMessage) {
+                ((StreamingHttpOutputMessage) request).setBody(out -> StreamUtils.copy(body, out));
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                StreamUtils.copy(body, request.getBody());
             }
+        };
+
+        ServerEndpoint endpoint = loadBalancer.choose();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = STATUS_IO_ERROR;
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.execute(endpoint.resolve(rest.getUriTemplateHandler().expand(path)),
+                    HttpMethod.POST, requestCallback, rest.responseEntityExtractor(byte[].class));
+            status = String.valueOf(shareitServerResponse.getStatusCodeValue());
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            status = String.valueOf(e.getRawStatusCode());
+            return prepareGatewayResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        } finally {
+            stopSample(sample, HttpMethod.POST, status);
+            loadBalancer.release(endpoint, isEndpointFailure(status));
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Отправляет GET запрос и передаёт клиенту статус, тип содержимого и тело ответа сервера как есть,
+     * копируя тело потоком без разбора и буферизации.
+     * Время запроса замеряется до получения заголовков ответа.
+     */
+    protected ResponseEntity<StreamingResponseBody> getStream(String path, long userId) throws IOException {
+        URI uri = rest.getUriTemplateHandler().expand(path);
+        ServerEndpoint endpoint = loadBalancer.choose();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = STATUS_IO_ERROR;
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(endpoint.resolve(uri), HttpMethod.GET);
+            request.getHeaders().set(REQUEST_HEADER_SHARER_USER_ID, String.valueOf(userId));
+            response = request.execute();
+            status = String.valueOf(response.getRawStatusCode());
+        } finally {
+            stopSample(sample, HttpMethod.GET, status);
+            loadBalancer.release(endpoint, isEndpointFailure(status));
+        }
+
+        return ResponseEntity.status(response.getRawStatusCode())
+                .headers(passThroughHeaders(response.getHeaders()))
+                .body(out -> {
+                    try (response) {
+                        copyFlushing(response.getBody(), out);
+                    }
+                });
+    }
+
+    /**
+     * Копирует поток, отправляя клиенту каждую прочитанную порцию сразу, а не по заполнении буфера ответа.
+     */
+    private static void copyFlushing(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return send(method, path, defaultHeaders(userId), parameters, body, true)
+                .thenApply(this::prepareGatewayResponse);
+    }
+
+    /**
+     * Отправляет запрос серверу и возвращает ответ с любым статусом, не разбирая тело.
+     * Одинаковые одновременные GET запросы отправляются серверу один раз.
+     *
+     * @param perUser объединять только запросы одного пользователя; иначе см. {@link #getShared}
+     */
+    private <T> CompletableFuture<ResponseEntity<byte[]>> send(HttpMethod method, String path, HttpHeaders headers,
+                                                               @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                               boolean perUser) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        if (singleFlight == null || method != HttpMethod.GET) {
+            return send(method, uri, headers, body);
+        }
+        String key = String.join(" ", clientName, uri.toString(),
+                perUser ? String.valueOf(headers.getFirst(REQUEST_HEADER_SHARER_USER_ID)) : "*",
+                String.valueOf(headers.getFirst(HttpHeaders.IF_NONE_MATCH)));
+        if (perUser) {
+            return singleFlight.execute(key, () -> send(method, uri, headers, body));
+        }
+        AtomicBoolean leader = new AtomicBoolean();
+        return singleFlight.execute(key, () -> {
+                    leader.set(true);
+                    return send(method, uri, headers, body);
+                })
+                .thenCompose(response -> leader.get() || response.getStatusCode().is2xxSuccessful()
+                        ? CompletableFuture.completedFuture(response)
+                        : send(method, uri, headers, body));
+    }
+
+    /**
+     * Отправляет запрос, если у клиента есть свободное место и его выключатель не разомкнут,
+     * иначе сразу завершается {@link ru.practicum.shareit.exceptions.ServerUnavailableException}.
+     */
+    private <T> CompletableFuture<ResponseEntity<byte[]>> send(HttpMethod method, URI uri, HttpHeaders headers,
+                                                               @Nullable T body) {
+        if (resilience == null) {
+            return call(method, uri, headers, body);
+        }
+        ClientResilience.Permit permit = resilience.acquire();
+        CompletableFuture<ResponseEntity<byte[]>> response;
+        try {
+            response = call(method, uri, headers, body);
+        } catch (RuntimeException e) {
+            permit.release(true);
+            throw e;
+        }
+        return response.whenComplete((result, e) ->
+                permit.release(e != null || result.getStatusCodeValue() >= 500));
+    }
+
+    /**
+     * Отправляет запрос экземпляру сервера, выбранному {@link ShareItServerLoadBalancer}.
+     */
+    private <T> CompletableFuture<ResponseEntity<byte[]>> call(HttpMethod method, URI uri, HttpHeaders headers,
+                                                               @Nullable T body) {
+        ServerEndpoint endpoint = loadBalancer.choose();
+        URI target = endpoint.resolve(uri);
+        if (asyncClient == null) {
+            String status = STATUS_IO_ERROR;
+            try {
+                ResponseEntity<byte[]> response = exchange(method, target, headers, body);
+                status = String.valueOf(response.getStatusCodeValue());
+                return CompletableFuture.completedFuture(response);
+            } finally {
+                loadBalancer.release(endpoint, isEndpointFailure(status));
+            }
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<ResponseEntity<byte[]>> response;
+        try {
+            response = asyncClient.exchange(target, method, headers, body);
+        } catch (RuntimeException e) {
+            loadBalancer.release(endpoint, false);
+            throw e;
+        }
+        return response.whenComplete((result, e) -> {
+            String status = result != null ? String.valueOf(result.getStatusCodeValue()) : STATUS_IO_ERROR;
+            stopSample(sample, method, status);
+            loadBalancer.release(endpoint, isEndpointFailure(status));
+        });
+    }
+
+    /**
+     * Экземпляр сервера не ответил или ответил, что не может обработать запрос.
+     * Ошибки 500 означают ошибку в обработке конкретного запроса и экземпляр не исключают.
+     */
+    private static boolean isEndpointFailure(String status) {
+        return STATUS_IO_ERROR.equals(status) || "502".equals(status) || "503".equals(status)
+                || "504".equals(status);
+    }
+
+    private <T> ResponseEntity<byte[]> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = STATUS_IO_ERROR;
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, byte[].class);
+            status = String.valueOf(shareitServerResponse.getStatusCodeValue());
+        } catch (HttpStatusCodeException e) {
+            status = String.valueOf(e.getRawStatusCode());
+            HttpHeaders responseHeaders = e.getResponseHeaders() != null ? e.getResponseHeaders() : new HttpHeaders();
+            return ResponseEntity.status(e.getRawStatusCode())
+                    .headers(responseHeaders)
+                    .body(e.getResponseBodyAsByteArray());
+        } finally {
+            stopSample(sample, method, status);
+        }
+        return shareitServerResponse;
+    }
+
+    /**
+     * Время запроса к серверу по клиенту шлюза, методу и статусу ответа.
+     * Статус {@value #STATUS_IO_ERROR} означает, что ответ не был получен.
+     */
+    private void stopSample(Timer.Sample sample, HttpMethod method, String status) {
+        sample.stop(Timer.builder(CLIENT_REQUESTS_METRIC)
+                .description("Время запросов шлюза к серверу ShareIt")
+                .tag("client", clientName)
+                .tag("method", method.name())
+                .tag("status", status)
+                .register(meterRegistry));
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            headers.set(REQUEST_HEADER_SHARER_USER_ID, String.valueOf(userId));
         }
         return headers;
     }
 
-    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        return prepareGatewayResponse(response.getStatusCodeValue(), response.getHeaders(), response.getBody());
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    /**
+     * Ответ сервера передаётся клиенту как есть: тело остаётся массивом байт и не проходит
+     * через Jackson, заголовки копируются, кроме относящихся к соединению.
+     */
+    private ResponseEntity<Object> prepareGatewayResponse(int status, @Nullable HttpHeaders headers, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (headers != null) {
+            responseBuilder.headers(passThroughHeaders(headers));
         }
+        if (body == null || body.length == 0) {
+            return responseBuilder.build();
+        }
+        return responseBuilder.body(body);
+    }
 
-        return responseBuilder.build();
+    private static HttpHeaders passThroughHeaders(HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                result.put(name, values);
+            }
+        });
+        return result;
     }
 }
\ No newline at end of file
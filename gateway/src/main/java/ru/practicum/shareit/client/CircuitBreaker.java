@@ -0,0 +1,111 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Автоматический выключатель по скользящему окну из последних запросов.
+ * В замкнутом состоянии запросы проходят; когда доля неудачных в окне достигает порога, выключатель
+ * размыкается и запросы отклоняются без обращения к серверу. По истечении openDuration
+ * пропускается несколько пробных запросов: все удачные замыкают выключатель, первая неудача снова размыкает.
+ * Результаты запросов, начатых до смены состояния, не учитываются.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final ClientResilienceProperties properties;
+    private final long openDurationNanos;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(ClientResilienceProperties properties) {
+        this.properties = properties;
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.window = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    /**
+     * @param now текущее время по {@link System#nanoTime()}
+     * @return поколение состояния, которое нужно передать в {@link #onResult}, или -1, если запрос отклонён
+     */
+    public synchronized long tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openDurationNanos) {
+                return -1;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenPermits = properties.getHalfOpenCalls();
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return -1;
+            }
+            halfOpenPermits--;
+        }
+        return generation;
+    }
+
+    public synchronized void onResult(long permitGeneration, boolean failed, long now) {
+        if (permitGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open(now);
+            } else if (++halfOpenSuccesses == properties.getHalfOpenCalls()) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(failed);
+            if (windowCalls >= properties.getMinimumCalls()
+                    && windowFailures * 100 >= properties.getFailureRateThreshold() * windowCalls) {
+                open(now);
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (windowCalls == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open(long now) {
+        transition(State.OPEN);
+        openedAt = now;
+    }
+
+    private void transition(State newState) {
+        state = newState;
+        generation++;
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Изоляция одного клиента шлюза: лимит одновременных запросов к серверу и автоматический выключатель.
+ * Медленные ответы одного раздела сервера занимают только места своего клиента
+ * и не задерживают запросы других клиентов.
+ */
+public class ClientResilience {
+
+    private final String clientName;
+    private final int maxConcurrentCalls;
+    private final long slowCallNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final CircuitBreaker circuitBreaker;
+    private final LongSupplier nanoClock;
+    private final Counter bulkheadRejected;
+    private final Counter circuitRejected;
+    private final Counter succeeded;
+    private final Counter failed;
+
+    public ClientResilience(String clientName, ClientResilienceProperties properties, MeterRegistry meterRegistry) {
+        this(clientName, properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock источник времени в наносекундах, как {@link System#nanoTime()}
+     */
+    public ClientResilience(String clientName, ClientResilienceProperties properties, MeterRegistry meterRegistry,
+                            LongSupplier nanoClock) {
+        this.clientName = clientName;
+        this.nanoClock = nanoClock;
+        this.maxConcurrentCalls = properties.getMaxConcurrentCalls(clientName);
+        this.slowCallNanos = properties.getSlowCallDuration().toNanos();
+        this.circuitBreaker = new CircuitBreaker(properties);
+
+        Gauge.builder("gateway.bulkhead.in.flight", inFlight, AtomicInteger::get)
+                .description("Число выполняющихся запросов клиента к серверу")
+                .tag("client", clientName)
+                .register(meterRegistry);
+        Gauge.builder("gateway.circuit.breaker.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Состояние выключателя клиента: 0 — замкнут, 1 — разомкнут, 2 — пробные запросы")
+                .tag("client", clientName)
+                .register(meterRegistry);
+        this.bulkheadRejected = calls(meterRegistry, "bulkhead_rejected");
+        this.circuitRejected = calls(meterRegistry, "circuit_open");
+        this.succeeded = calls(meterRegistry, "success");
+        this.failed = calls(meterRegistry, "failure");
+    }
+
+    /**
+     * Занимает место для запроса к серверу.
+     *
+     * @throws ServerUnavailableException если мест нет или выключатель разомкнут
+     */
+    public Permit acquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxConcurrentCalls) {
+                bulkheadRejected.increment();
+                throw new ServerUnavailableException(String.format(
+                        "Превышен лимит одновременных запросов клиента %s к серверу", clientName));
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        long start = nanoClock.getAsLong();
+        long generation = circuitBreaker.tryAcquire(start);
+        if (generation < 0) {
+            inFlight.decrementAndGet();
+            circuitRejected.increment();
+            throw new ServerUnavailableException(String.format(
+                    "Сервер недоступен для клиента %s, запросы временно не отправляются", clientName));
+        }
+        return new Permit(start, generation);
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    private Counter calls(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.circuit.breaker.calls")
+                .description("Запросы клиента к серверу по результату")
+                .tag("client", clientName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public class Permit {
+
+        private final long start;
+        private final long generation;
+
+        private Permit(long start, long generation) {
+            this.start = start;
+            this.generation = generation;
+        }
+
+        /**
+         * Освобождает место и учитывает результат запроса в выключателе.
+         * Запрос дольше slowCallDuration считается неудачным.
+         *
+         * @param error сервер не ответил или ответил ошибкой 5xx
+         */
+        public void release(boolean error) {
+            inFlight.decrementAndGet();
+            long now = nanoClock.getAsLong();
+            boolean callFailed = error || now - start > slowCallNanos;
+            (callFailed ? failed : succeeded).increment();
+            circuitBreaker.onResult(generation, callFailed, now);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки изоляции клиентов шлюза друг от друга: лимит одновременных запросов (bulkhead)
+ * и автоматический выключатель (circuit breaker) у каждого клиента свои.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ClientResilienceProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Максимальное число одновременных запросов одного клиента к серверу.
+     */
+    private int maxConcurrentCalls = 50;
+
+    /**
+     * Лимит одновременных запросов для отдельных клиентов: bookings, items, requests, users.
+     */
+    private Map<String, Integer> maxConcurrentCallsByClient = new HashMap<>();
+
+    /**
+     * Доля неудачных запросов в процентах, при которой выключатель размыкается.
+     */
+    private int failureRateThreshold = 50;
+
+    /**
+     * Запрос дольше этого времени считается неудачным.
+     */
+    private Duration slowCallDuration = Duration.ofSeconds(5);
+
+    /**
+     * По скольким последним запросам считается доля неудачных.
+     */
+    private int slidingWindowSize = 50;
+
+    /**
+     * Минимальное число запросов в окне, прежде чем выключатель может разомкнуться.
+     */
+    private int minimumCalls = 20;
+
+    /**
+     * Сколько выключатель остаётся разомкнутым, прежде чем пропустить пробные запросы.
+     */
+    private Duration openDuration = Duration.ofSeconds(10);
+
+    /**
+     * Сколько пробных запросов пропускает полуразомкнутый выключатель.
+     */
+    private int halfOpenCalls = 5;
+
+    public int getMaxConcurrentCalls(String clientName) {
+        return maxConcurrentCallsByClient.getOrDefault(clientName, maxConcurrentCalls);
+    }
+}
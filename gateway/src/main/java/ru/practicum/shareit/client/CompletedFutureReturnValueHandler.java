@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Обрабатывает уже завершённый CompletableFuture в потоке запроса так, как если бы контроллер вернул
+ * его результат. В режиме blocking клиенты возвращают завершённые CompletableFuture, и без этого
+ * каждый запрос запускал бы асинхронную обработку и повторную диспетчеризацию.
+ * Незавершённые и завершённые с ошибкой CompletableFuture обрабатываются асинхронно, как обычно.
+ */
+class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+    private final HandlerMethodReturnValueHandler asyncHandler;
+    private final HandlerMethodReturnValueHandlerComposite resultHandlers;
+
+    /**
+     * @param asyncHandler   обработчик незавершённых CompletableFuture
+     * @param resultHandlers обработчики, среди которых выбирается обработчик результата
+     */
+    CompletedFutureReturnValueHandler(HandlerMethodReturnValueHandler asyncHandler,
+                                      HandlerMethodReturnValueHandlerComposite resultHandlers) {
+        this.asyncHandler = asyncHandler;
+        this.resultHandlers = resultHandlers;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            asyncHandler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+        resultHandlers.handleReturnValue(future.join(), new ResultMethodParameter(returnType), mavContainer,
+                webRequest);
+    }
+
+    /**
+     * Тип возвращаемого значения метода контроллера, в котором CompletableFuture&lt;T&gt; заменён на T.
+     */
+    private static class ResultMethodParameter extends MethodParameter {
+        private final ResolvableType resultType;
+
+        ResultMethodParameter(MethodParameter returnType) {
+            super(returnType);
+            this.resultType = ResolvableType.forMethodParameter(returnType).getGeneric();
+        }
+
+        private ResultMethodParameter(ResultMethodParameter original) {
+            super(original);
+            this.resultType = original.resultType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return resultType.toClass();
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return resultType.getType();
+        }
+
+        @Override
+        public ResultMethodParameter clone() {
+            return new ResultMethodParameter(this);
+        }
+    }
+}
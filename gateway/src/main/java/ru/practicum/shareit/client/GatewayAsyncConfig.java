@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.DeferredResultMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Асинхронная обработка запросов к шлюзу.
+ * Тайм-аут spring.mvc.async.request-timeout действует на ответы CompletableFuture. Потоковые ответы
+ * StreamingResponseBody, единственные в шлюзе обрабатываемые через Callable, выполняются без тайм-аута:
+ * выгрузка длится, пока сервер пишет данные, а остановившийся сервер обрывается по read-timeout клиента.
+ */
+@Configuration
+public class GatewayAsyncConfig implements WebMvcConfigurer {
+    private static final long NO_TIMEOUT = 0L;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest) {
+                    ((AsyncWebRequest) request).setTimeout(NO_TIMEOUT);
+                }
+            }
+        });
+    }
+
+    /**
+     * Ставит {@link CompletedFutureReturnValueHandler} перед стандартными обработчиками возвращаемых значений.
+     */
+    @Bean
+    public static BeanPostProcessor completedFutureReturnValueHandlerInstaller() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter) {
+                    RequestMappingHandlerAdapter adapter = (RequestMappingHandlerAdapter) bean;
+                    List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(adapter.getReturnValueHandlers());
+                    HandlerMethodReturnValueHandler asyncHandler = handlers.stream()
+                            .filter(handler -> handler instanceof DeferredResultMethodReturnValueHandler)
+                            .findFirst()
+                            .orElseThrow();
+                    HandlerMethodReturnValueHandlerComposite resultHandlers =
+                            new HandlerMethodReturnValueHandlerComposite().addHandlers(handlers);
+                    handlers.add(0, new CompletedFutureReturnValueHandler(asyncHandler, resultHandlers));
+                    adapter.setReturnValueHandlers(handlers);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Кэш ответов сервера ShareIt по пользователю и пути запроса.
+ * Ответ из кэша не отдаётся без проверки: шлюз отправляет серверу If-None-Match с сохранённым ETag
+ * и на 304 возвращает клиенту сохранённое тело, не получая его от сервера повторно.
+ * Размер кэша ограничен суммарным размером тел ответов и отдельно размером ответов одного пользователя:
+ * сверх своего предела вытесняются давно не запрошенные ответы того же пользователя, поэтому один активный
+ * пользователь не вытесняет ответы остальных. При превышении общего предела и по истечении expireAfterAccess
+ * без запросов удаляются все ответы пользователя.
+ */
+public class GatewayResponseCache {
+
+    private static final String REQUESTS_METRIC = "gateway.response.cache.requests";
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<String, UserResponses> cache;
+    private final long maximumWeightPerUser;
+    private final Counter hits;
+    private final Counter stale;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public GatewayResponseCache(GatewayResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.maximumWeightPerUser = properties.getMaximumWeightPerUser().toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeight().toBytes())
+                .weigher((String user, UserResponses responses) -> responses.getWeight())
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response");
+        this.hits = requests(meterRegistry, "hit");
+        this.stale = requests(meterRegistry, "stale");
+        this.misses = requests(meterRegistry, "miss");
+        this.bytesSaved = Counter.builder("gateway.response.cache.bytes.saved")
+                .description("Объём тел ответов, которые сервер не передавал повторно благодаря 304")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public static Key key(String clientName, @Nullable Long userId, String path) {
+        return new Key(userId != null ? userId.toString() : "", clientName + path);
+    }
+
+    @Nullable
+    public CachedResponse get(Key key) {
+        UserResponses responses = cache.getIfPresent(key.getUser());
+        return responses != null ? responses.get(key.getResource()) : null;
+    }
+
+    /**
+     * Учитывает ответ сервера на запрос, для которого в кэше был или не был сохранён ответ.
+     * Успешный ответ с ETag сохраняется, иначе сохранённый ответ удаляется.
+     *
+     * @param cached   ответ из кэша, ETag которого был отправлен серверу в If-None-Match
+     * @param response ответ сервера
+     * @return ответ для клиента шлюза: на 304 по сохранённому ответу — сохранённое тело со статусом 200
+     */
+    public ResponseEntity<byte[]> onResponse(Key key, @Nullable CachedResponse cached,
+                                             ResponseEntity<byte[]> response) {
+        if (cached != null && response.getStatusCodeValue() == 304) {
+            hits.increment();
+            bytesSaved.increment(cached.getBody().length);
+            return cached.toResponse();
+        }
+        (cached != null ? stale : misses).increment();
+        String eTag = response.getHeaders().getETag();
+        if (response.getStatusCode().is2xxSuccessful() && eTag != null && response.getBody() != null) {
+            CachedResponse cachedResponse = new CachedResponse(eTag, response.getHeaders().getContentType(),
+                    response.getBody());
+            update(key.getUser(), responses -> responses.put(key.getResource(), cachedResponse, maximumWeightPerUser));
+        } else {
+            update(key.getUser(), responses -> responses.remove(key.getResource()));
+        }
+        return response;
+    }
+
+    /**
+     * Изменяет ответы пользователя так, чтобы кэш пересчитал их вес; пустой набор ответов удаляется.
+     */
+    private void update(String user, Consumer<UserResponses> change) {
+        cache.asMap().compute(user, (k, responses) -> {
+            UserResponses result = responses != null ? responses : new UserResponses();
+            change.accept(result);
+            return result.isEmpty() ? null : result;
+        });
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("Запросы через кэш ответов: hit — сервер ответил 304, stale — ответ в кэше устарел, " +
+                        "miss — ответа в кэше не было")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Value
+    public static class Key {
+        String user;
+        String resource;
+    }
+
+    /**
+     * Ответы одного пользователя в порядке обращений, от давних к последним.
+     */
+    private static class UserResponses {
+        private final LinkedHashMap<String, CachedResponse> responses = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        synchronized CachedResponse get(String resource) {
+            return responses.get(resource);
+        }
+
+        /**
+         * Сохраняет ответ и вытесняет давние ответы, пока вес не станет не больше maximumWeight.
+         * Ответ тяжелее maximumWeight не сохраняется.
+         */
+        synchronized void put(String resource, CachedResponse response, long maximumWeight) {
+            remove(resource);
+            long responseWeight = weigh(resource, response);
+            if (responseWeight > maximumWeight) {
+                return;
+            }
+            responses.put(resource, response);
+            weight += responseWeight;
+            Iterator<Map.Entry<String, CachedResponse>> eldest = responses.entrySet().iterator();
+            while (weight > maximumWeight) {
+                Map.Entry<String, CachedResponse> entry = eldest.next();
+                weight -= weigh(entry.getKey(), entry.getValue());
+                eldest.remove();
+            }
+        }
+
+        synchronized void remove(String resource) {
+            CachedResponse removed = responses.remove(resource);
+            if (removed != null) {
+                weight -= weigh(resource, removed);
+            }
+        }
+
+        synchronized boolean isEmpty() {
+            return responses.isEmpty();
+        }
+
+        synchronized int getWeight() {
+            return (int) Math.min(Integer.MAX_VALUE, weight);
+        }
+
+        private static long weigh(String resource, CachedResponse response) {
+            return ENTRY_OVERHEAD + resource.length() + response.getBody().length;
+        }
+    }
+
+    @Value
+    public static class CachedResponse {
+        String eTag;
+        @Nullable
+        MediaType contentType;
+        byte[] body;
+
+        ResponseEntity<byte[]> toResponse() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(eTag);
+            if (contentType != null) {
+                headers.setContentType(contentType);
+            }
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
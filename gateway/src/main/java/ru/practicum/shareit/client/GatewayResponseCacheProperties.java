@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов сервера ShareIt, проверяемых по ETag.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.response-cache")
+public class GatewayResponseCacheProperties {
+
+    /**
+     * Включает кэширование ответов и условные запросы с If-None-Match.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Суммарный размер тел ответов в кэше.
+     */
+    private DataSize maximumWeight = DataSize.ofMegabytes(64);
+
+    /**
+     * Суммарный размер тел ответов одного пользователя.
+     */
+    private DataSize maximumWeightPerUser = DataSize.ofMegabytes(1);
+
+    /**
+     * Через сколько без обращений ответ удаляется из кэша.
+     */
+    private Duration expireAfterAccess = Duration.ofMinutes(10);
+}
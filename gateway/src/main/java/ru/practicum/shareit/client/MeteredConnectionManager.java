@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пул соединений, публикующий свою загрузку и время ожидания свободного соединения.
+ */
+public class MeteredConnectionManager extends PoolingHttpClientConnectionManager implements MeterBinder {
+
+    private final String poolName;
+    private volatile Timer leased;
+    private volatile Timer timedOut;
+
+    public MeteredConnectionManager(String poolName) {
+        this.poolName = poolName;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(this, poolName).bindTo(registry);
+        leased = leaseTimer(registry, "leased");
+        timedOut = leaseTimer(registry, "timeout");
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    HttpClientConnection connection = request.get(timeout, unit);
+                    record(leased, start);
+                    return connection;
+                } catch (ConnectionPoolTimeoutException e) {
+                    record(timedOut, start);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private Timer leaseTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("gateway.http.pool.lease")
+                .description("Время ожидания соединения из пула")
+                .tag("httpclient", poolName)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static void record(Timer timer, long start) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
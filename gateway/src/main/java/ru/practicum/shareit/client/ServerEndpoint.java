@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Экземпляр сервера ShareIt: адрес, число выполняющихся к нему запросов и доступность.
+ * Экземпляр недоступен, если не прошёл проверки или временно исключён после неудачных запросов подряд.
+ */
+public class ServerEndpoint {
+
+    private final String url;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntil;
+
+    // изменяются только при проверках, под блокировкой балансировщика
+    private int healthCheckSuccesses;
+    private int healthCheckFailures;
+
+    /**
+     * @param now текущее время по часам балансировщика; экземпляр создаётся доступным
+     */
+    public ServerEndpoint(String url, long now) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.ejectedUntil = now;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Абсолютный адрес запроса к экземпляру.
+     *
+     * @param uri путь запроса с параметрами, например /items/1?from=0
+     */
+    public URI resolve(URI uri) {
+        return URI.create(url + uri.toString());
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public boolean isAvailable(long now) {
+        return healthy && now - ejectedUntil >= 0;
+    }
+
+    void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Завершает запрос к экземпляру.
+     *
+     * @return true, если неудачных запросов подряд стало ровно maxFailures
+     */
+    boolean release(boolean failed, int maxFailures) {
+        outstanding.decrementAndGet();
+        if (!failed) {
+            consecutiveFailures.set(0);
+            return false;
+        }
+        return consecutiveFailures.incrementAndGet() == maxFailures;
+    }
+
+    void eject(long until) {
+        ejectedUntil = until;
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Учитывает результат проверки экземпляра.
+     *
+     * @return true, если доступность экземпляра изменилась
+     */
+    boolean onHealthCheck(boolean success, int healthyThreshold, int unhealthyThreshold) {
+        if (success) {
+            healthCheckFailures = 0;
+            if (!healthy && ++healthCheckSuccesses >= healthyThreshold) {
+                healthy = true;
+                return true;
+            }
+        } else {
+            healthCheckSuccesses = 0;
+            if (healthy && ++healthCheckFailures >= unhealthyThreshold) {
+                healthy = false;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующий клиент сервера ShareIt: поток, отправивший запрос, не ждёт ответа,
+ * ответ обрабатывается потоками {@link HttpClient} по мере получения.
+ * Тело ответа возвращается массивом байт без разбора.
+ */
+public class ShareItServerAsyncClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration readTimeout;
+
+    public ShareItServerAsyncClient(HttpClient httpClient, ObjectMapper objectMapper, Duration readTimeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.readTimeout = readTimeout;
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(URI uri, HttpMethod method, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .method(method.name(), bodyPublisher(body));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    response.headers().map().forEach(responseHeaders::addAll);
+                    return ResponseEntity.status(response.statusCode())
+                            .headers(responseHeaders)
+                            .body(response.body());
+                });
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(@Nullable Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Не удалось сериализовать тело запроса: " + e.getMessage(), e);
+        }
+    }
+}
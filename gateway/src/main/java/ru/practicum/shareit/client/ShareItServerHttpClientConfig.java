@@ -0,0 +1,98 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий для всех клиентов шлюза HTTP клиент с пулом постоянных соединений к серверу ShareIt.
+ * В режиме non-blocking дополнительно создаётся неблокирующий клиент, через который идут все запросы,
+ * кроме потоковых импорта и выгрузки.
+ * Ответы на запросы отдельных вещей, пользователей и запросов кэшируются и проверяются по ETag,
+ * одинаковые одновременные GET запросы объединяются.
+ * Если в shareit-server.url через запятую задано несколько адресов, запросы распределяются между ними.
+ */
+@Configuration
+@EnableConfigurationProperties({ShareItServerHttpClientProperties.class, GatewayResponseCacheProperties.class,
+        SingleFlightProperties.class, ClientResilienceProperties.class, ShareItServerLoadBalancerProperties.class})
+public class ShareItServerHttpClientConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ShareItServerLoadBalancer shareItServerLoadBalancer(@Value("${shareit-server.url}") List<String> urls,
+                                                               ShareItServerLoadBalancerProperties properties,
+                                                               MeterRegistry meterRegistry) {
+        return new ShareItServerLoadBalancer(urls, properties, meterRegistry);
+    }
+
+    @Bean
+    public MeteredConnectionManager shareItServerConnectionManager(ShareItServerHttpClientProperties properties) {
+        MeteredConnectionManager connectionManager = new MeteredConnectionManager("shareit-server");
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient shareItServerHttpClient(ShareItServerHttpClientProperties properties,
+                                                       PoolingHttpClientConnectionManager connectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .build();
+        long maxKeepAlive = properties.getKeepAlive().toMillis();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? Math.min(keepAlive, maxKeepAlive) : maxKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.http-client.mode", havingValue = "non-blocking")
+    public ShareItServerAsyncClient shareItServerAsyncClient(ShareItServerHttpClientProperties properties,
+                                                             ObjectMapper objectMapper) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(Executors.newFixedThreadPool(properties.getAsyncThreads(),
+                        new CustomizableThreadFactory("shareit-server-async-")))
+                .build();
+        return new ShareItServerAsyncClient(httpClient, objectMapper, properties.getReadTimeout());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.response-cache.enabled", matchIfMissing = true)
+    public GatewayResponseCache gatewayResponseCache(GatewayResponseCacheProperties properties,
+                                                     MeterRegistry meterRegistry) {
+        return new GatewayResponseCache(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.single-flight.enabled", matchIfMissing = true)
+    public SingleFlight singleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        return new SingleFlight(properties, meterRegistry);
+    }
+}
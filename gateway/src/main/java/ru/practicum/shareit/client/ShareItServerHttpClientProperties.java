@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула HTTP соединений шлюза с сервером ShareIt.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class ShareItServerHttpClientProperties {
+
+    /**
+     * Режим отправки запросов: blocking занимает поток Tomcat до получения ответа сервера,
+     * non-blocking освобождает его сразу после отправки запроса.
+     */
+    private Mode mode = Mode.BLOCKING;
+
+    /**
+     * Число потоков, обрабатывающих ответы сервера в режиме non-blocking.
+     */
+    private int asyncThreads = 4;
+
+    /**
+     * Максимальное число соединений в пуле.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Максимальное число соединений к одному адресу сервера.
+     */
+    private int maxPerRoute = 200;
+
+    /**
+     * Время на установку TCP соединения.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Максимальная пауза между пакетами ответа сервера.
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Время ожидания свободного соединения из пула.
+     */
+    private Duration connectionRequestTimeout = Duration.ofMillis(500);
+
+    /**
+     * Сколько держать соединение открытым, если сервер не прислал заголовок Keep-Alive.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Через сколько простоя соединение закрывается фоновым потоком.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Через сколько простоя соединение проверяется перед повторным использованием.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    public enum Mode {
+        BLOCKING,
+        NON_BLOCKING
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Распределение запросов шлюза между экземплярами сервера ShareIt.
+ * Экземпляр выбирается из двух случайных доступных по меньшему числу выполняющихся запросов
+ * (power of two choices): медленный экземпляр получает меньше запросов без общего счётчика на всех.
+ * Экземпляр исключается после неудачных запросов подряд или неудачных периодических проверок
+ * и возвращается по истечении времени исключения или после успешных проверок.
+ * Если доступных экземпляров нет, запросы распределяются между всеми.
+ */
+@Slf4j
+public class ShareItServerLoadBalancer implements AutoCloseable {
+
+    private static final String METRIC_PREFIX = "gateway.load.balancer.";
+
+    private final List<ServerEndpoint> endpoints;
+    private final ShareItServerLoadBalancerProperties properties;
+    private final Map<ServerEndpoint, Counter> ejections;
+    private final Counter noAvailableEndpoint;
+    private final LongSupplier nanoClock;
+    private ScheduledExecutorService healthCheckExecutor;
+    private HttpClient healthCheckClient;
+
+    public ShareItServerLoadBalancer(List<String> urls, ShareItServerLoadBalancerProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this(urls, properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock источник времени в наносекундах, как {@link System#nanoTime()}
+     */
+    public ShareItServerLoadBalancer(List<String> urls, ShareItServerLoadBalancerProperties properties,
+                                     MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Не задан ни один адрес сервера ShareIt");
+        }
+        this.endpoints = urls.stream()
+                .map(String::trim)
+                .map(url -> new ServerEndpoint(url, nanoClock.getAsLong()))
+                .collect(Collectors.toUnmodifiableList());
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+
+        for (ServerEndpoint endpoint : endpoints) {
+            Gauge.builder(METRIC_PREFIX + "outstanding", endpoint, ServerEndpoint::getOutstanding)
+                    .description("Число выполняющихся запросов к экземпляру сервера")
+                    .tag("endpoint", endpoint.getUrl())
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + "available", endpoint,
+                            e -> e.isAvailable(nanoClock.getAsLong()) ? 1 : 0)
+                    .description("Доступен ли экземпляр сервера: 1 — да, 0 — исключён")
+                    .tag("endpoint", endpoint.getUrl())
+                    .register(meterRegistry);
+        }
+        this.ejections = endpoints.stream()
+                .collect(Collectors.toUnmodifiableMap(endpoint -> endpoint, endpoint ->
+                        Counter.builder(METRIC_PREFIX + "ejections")
+                                .description("Сколько раз экземпляр исключался после неудачных запросов подряд")
+                                .tag("endpoint", endpoint.getUrl())
+                                .register(meterRegistry)));
+        this.noAvailableEndpoint = Counter.builder(METRIC_PREFIX + "no.available.endpoint")
+                .description("Запросы, отправленные при отсутствии доступных экземпляров")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запускает периодические проверки экземпляров, если экземпляров больше одного.
+     * Для нескольких экземпляров предупреждает о состоянии сервера, которое хранится в памяти каждого экземпляра.
+     */
+    public void start() {
+        if (endpoints.size() > 1) {
+            log.warn("Запросы распределяются между {} экземплярами сервера ShareIt: на каждом из них должны быть "
+                    + "shareit.booking-index.enabled=false, shareit.item-search.mode=jpa "
+                    + "и shareit.user-cache.expire-after-write=0s, иначе экземпляры не видят изменений друг друга",
+                    endpoints.size());
+        }
+        ShareItServerLoadBalancerProperties.HealthCheck healthCheck = properties.getHealthCheck();
+        if (!healthCheck.isEnabled() || endpoints.size() < 2) {
+            return;
+        }
+        healthCheckClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(healthCheck.getTimeout())
+                .build();
+        healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("shareit-server-health-check-"));
+        long interval = healthCheck.getInterval().toMillis();
+        healthCheckExecutor.scheduleWithFixedDelay(this::checkHealth, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Выбирает экземпляр для запроса и учитывает запрос в его числе выполняющихся.
+     * После ответа нужно вызвать {@link #release}.
+     */
+    public ServerEndpoint choose() {
+        ServerEndpoint endpoint = endpoints.size() == 1 ? endpoints.get(0) : chooseOfTwo();
+        endpoint.acquire();
+        return endpoint;
+    }
+
+    /**
+     * Завершает запрос к экземпляру.
+     *
+     * @param failed сервер не ответил или ответил 502, 503, 504
+     */
+    public void release(ServerEndpoint endpoint, boolean failed) {
+        if (endpoint.release(failed, properties.getMaxFailures()) && endpoints.size() > 1) {
+            endpoint.eject(nanoClock.getAsLong() + properties.getEjectionDuration().toNanos());
+            ejections.get(endpoint).increment();
+            log.warn("Экземпляр сервера {} исключён на {} после {} неудачных запросов подряд",
+                    endpoint.getUrl(), properties.getEjectionDuration(), properties.getMaxFailures());
+        }
+    }
+
+    private ServerEndpoint chooseOfTwo() {
+        long now = nanoClock.getAsLong();
+        List<ServerEndpoint> candidates = new ArrayList<>(endpoints.size());
+        for (ServerEndpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            noAvailableEndpoint.increment();
+            candidates = endpoints;
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerEndpoint a = candidates.get(first);
+        ServerEndpoint b = candidates.get(second);
+        return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+
+    private void checkHealth() {
+        ShareItServerLoadBalancerProperties.HealthCheck healthCheck = properties.getHealthCheck();
+        List<CompletableFuture<Void>> checks = new ArrayList<>(endpoints.size());
+        for (ServerEndpoint endpoint : endpoints) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getUrl() + healthCheck.getPath()))
+                    .timeout(healthCheck.getTimeout())
+                    .GET()
+                    .build();
+            checks.add(healthCheckClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, e) -> response != null && response.statusCode() < 500)
+                    .thenAccept(success -> onHealthCheck(endpoint, success)));
+        }
+        try {
+            CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException e) {
+            log.warn("Проверка экземпляров сервера завершилась ошибкой", e);
+        }
+    }
+
+    private synchronized void onHealthCheck(ServerEndpoint endpoint, boolean success) {
+        ShareItServerLoadBalancerProperties.HealthCheck healthCheck = properties.getHealthCheck();
+        if (endpoint.onHealthCheck(success, healthCheck.getHealthyThreshold(), healthCheck.getUnhealthyThreshold())) {
+            if (endpoint.isHealthy()) {
+                log.info("Экземпляр сервера {} прошёл проверки и снова получает запросы", endpoint.getUrl());
+            } else {
+                log.warn("Экземпляр сервера {} не прошёл {} проверок подряд и исключён",
+                        endpoint.getUrl(), healthCheck.getUnhealthyThreshold());
+            }
+        }
+    }
+}
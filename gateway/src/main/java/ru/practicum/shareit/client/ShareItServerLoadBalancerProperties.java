@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки распределения запросов между экземплярами сервера ShareIt.
+ * Адреса экземпляров задаются через запятую в shareit-server.url.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.load-balancer")
+public class ShareItServerLoadBalancerProperties {
+
+    /**
+     * После скольких неудачных запросов подряд экземпляр временно исключается.
+     * Неудачным считается запрос без ответа или с ответом 502, 503, 504.
+     */
+    private int maxFailures = 5;
+
+    /**
+     * На сколько экземпляр исключается после maxFailures неудачных запросов подряд.
+     */
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+
+    private HealthCheck healthCheck = new HealthCheck();
+
+    @Data
+    public static class HealthCheck {
+
+        /**
+         * Включает периодическую проверку экземпляров. Проверки выполняются, только если экземпляров больше одного.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Путь, по которому проверяется экземпляр. Любой ответ, кроме 5xx, считается успешным.
+         */
+        private String path = "/";
+
+        private Duration interval = Duration.ofSeconds(5);
+
+        private Duration timeout = Duration.ofSeconds(1);
+
+        /**
+         * После скольких успешных проверок подряд исключённый экземпляр возвращается.
+         */
+        private int healthyThreshold = 2;
+
+        /**
+         * После скольких неудачных проверок подряд экземпляр исключается.
+         */
+        private int unhealthyThreshold = 3;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одинаковые одновременные запросы к серверу ShareIt: первый запрос с ключом отправляется серверу,
+ * остальные получают его ответ. Ответ отдаётся и запросам, пришедшим в течение окна после его получения.
+ * Ошибки ввода-вывода не переиспользуются: следующий запрос снова идёт на сервер.
+ */
+public class SingleFlight {
+
+    private static final String REQUESTS_METRIC = "gateway.single.flight.requests";
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final Executor expiryExecutor;
+    private final LongSupplier nanoClock;
+    private final Counter leaders;
+    private final Counter collapsed;
+
+    public SingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock источник времени в наносекундах, как {@link System#nanoTime()}
+     */
+    public SingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        Duration window = properties.getWindow();
+        this.windowNanos = window.toNanos();
+        this.expiryExecutor = CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS);
+        this.leaders = requests(meterRegistry, "leader");
+        this.collapsed = requests(meterRegistry, "collapsed");
+        Gauge.builder("gateway.single.flight.keys", flights, Map::size)
+                .description("Число ключей, по которым запрос выполняется или ответ ещё переиспользуется")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param key  ключ запроса: одинаковые ключи должны означать одинаковый ответ сервера
+     * @param call отправка запроса серверу; вызывается только для первого запроса с ключом
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> execute(String key,
+                                                            Supplier<CompletableFuture<ResponseEntity<byte[]>>> call) {
+        Flight flight = new Flight();
+        Flight current = flights.compute(key, (k, existing) ->
+                existing != null && existing.isReusable(nanoClock.getAsLong(), windowNanos) ? existing : flight);
+        if (current != flight) {
+            collapsed.increment();
+            return current.response;
+        }
+
+        leaders.increment();
+        try {
+            call.get().whenComplete((response, e) -> complete(key, flight, response, e));
+        } catch (RuntimeException e) {
+            complete(key, flight, null, e);
+        }
+        return flight.response;
+    }
+
+    private void complete(String key, Flight flight, ResponseEntity<byte[]> response, Throwable e) {
+        flight.completedAt = nanoClock.getAsLong();
+        if (e != null || windowNanos == 0) {
+            flights.remove(key, flight);
+        } else {
+            expiryExecutor.execute(() -> flights.remove(key, flight));
+        }
+        if (e != null) {
+            flight.response.completeExceptionally(e);
+        } else {
+            flight.response.complete(response);
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("GET запросы к серверу: leader — отправлен серверу, collapsed — получил ответ другого запроса")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class Flight {
+        private final CompletableFuture<ResponseEntity<byte[]>> response = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        boolean isReusable(long now, long windowNanos) {
+            return !response.isDone()
+                    || (!response.isCompletedExceptionally() && now - completedAt < windowNanos);
+        }
+    }
+}
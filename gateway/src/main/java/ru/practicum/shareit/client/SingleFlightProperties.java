@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки объединения одинаковых одновременных GET запросов к серверу ShareIt.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.single-flight")
+public class SingleFlightProperties {
+
+    /**
+     * Включает объединение запросов.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Сколько после получения ответа отдавать его одинаковым запросам без обращения к серверу.
+     * При нуле объединяются только запросы, пришедшие, пока первый из них ждёт ответа.
+     */
+    private Duration window = Duration.ZERO;
+}
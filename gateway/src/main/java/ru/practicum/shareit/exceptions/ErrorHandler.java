@@ -31,6 +31,13 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler(ServerUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServerUnavailableException(final ServerUnavailableException e) {
+        log.warn("Request to shareit-server rejected: {}", e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherException(final RuntimeException e) {
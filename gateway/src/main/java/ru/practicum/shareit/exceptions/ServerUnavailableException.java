@@ -0,0 +1,12 @@
+package ru.practicum.shareit.exceptions;
+
+/**
+ * Запрос к серверу ShareIt не отправлен: исчерпан лимит одновременных запросов клиента
+ * или автоматический выключатель клиента разомкнут.
+ */
+public class ServerUnavailableException extends RuntimeException {
+
+    public ServerUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,69 +1,110 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ShareItServerAsyncClient;
+import ru.practicum.shareit.client.ShareItServerLoadBalancer;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(ShareItServerLoadBalancer loadBalancer, RestTemplateBuilder builder,
+                      HttpClient shareItServerHttpClient, ObjectProvider<ShareItServerAsyncClient> asyncClient,
+                      ObjectProvider<GatewayResponseCache> responseCache,
+                      ObjectProvider<SingleFlight> singleFlight,
+                      ClientResilienceProperties resilience,
+                      MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> streamingRequestFactory(shareItServerHttpClient))
+                        .build(),
+                loadBalancer,
+                asyncClient.getIfAvailable(),
+                responseCache.getIfAvailable(),
+                singleFlight.getIfAvailable(),
+                resilience,
+                meterRegistry,
+                "items"
         );
     }
 
-    public ResponseEntity<Object> create(Long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> get(Long userId, Long itemId) {
-        return get("/" + itemId, userId, null);
+    public CompletableFuture<ResponseEntity<Object>> get(Long userId, Long itemId) {
+        return getCached("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAll(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getAll(Long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, cursor), userId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportAll(Long userId) throws IOException {
+        return getStream("/export", userId);
     }
 
-    public ResponseEntity<Object> searchItems(Long userId, String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(Long userId, String text, Integer from, Integer size,
+                                                               String cursor) {
         if (text.isBlank()) {
-            return ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList()));
         }
 
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size,
                 "text", text
-        );
+        ));
 
-        return get("/search?from={from}&size={size}&text={text}", userId, parameters);
+        return getShared(withCursor("/search?from={from}&size={size}&text={text}", parameters, cursor), userId,
+                parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, CommentDto commentDto, Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(Long userId, CommentDto commentDto, Long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    public ResponseEntity<Object> importItems(Long userId, InputStream body, MediaType contentType) {
+        return postStream("/import", userId, body, contentType);
+    }
+
+    private static HttpComponentsClientHttpRequestFactory streamingRequestFactory(HttpClient httpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
 }
\ No newline at end of file
@@ -2,14 +2,19 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @Validated
@@ -23,48 +28,67 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                         @Valid @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                            @Valid @RequestBody ItemDto itemDto) {
         log.info("POST запрос на создание новой вещи: {} от пользователя c id: {}", itemDto, userId);
         return itemClient.create(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                         @RequestBody ItemDto itemDto,
-                                         @PathVariable("itemId") Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                            @RequestBody ItemDto itemDto,
+                                                            @PathVariable("itemId") Long itemId) {
         log.info("PATCH запрос на обновление вещи id: {} пользователя c id: {}", itemId, userId);
         return itemClient.update(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                      @PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                         @PathVariable Long itemId) {
         log.info("GET запрос на получение вещи c id: {}", itemId);
         return itemClient.get(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                         @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-                                         @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                            @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+                                                            @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size,
+                                                            @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("GET запрос на получение всех вещей пользователя c id: {}", userId);
-        return itemClient.getAll(userId, from, size);
+        return itemClient.getAll(userId, from, size, cursor);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId)
+            throws IOException {
+        log.info("GET запрос на выгрузку всех вещей пользователя c id: {}", userId);
+        return itemClient.exportAll(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                              @RequestParam(name = "text") String text,
-                                              @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-                                              @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                 @RequestParam(name = "text") String text,
+                                                                 @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+                                                                 @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size,
+                                                                 @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("GET запрос на поиск всех вещей c текстом: {}", text);
-        return itemClient.searchItems(userId, text, from, size);
+        return itemClient.searchItems(userId, text, from, size, cursor);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                                @Validated @RequestBody CommentDto commentDto,
-                                                @PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                   @Validated @RequestBody CommentDto commentDto,
+                                                                   @PathVariable Long itemId) {
         return itemClient.createComment(userId, commentDto, itemId);
     }
+
+    /**
+     * Тело передаётся на сервер потоком без разбора, строки проверяются сервером по мере чтения.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Object> importItems(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                              HttpServletRequest request) throws IOException {
+        log.info("POST запрос на пакетный импорт вещей пользователя c id: {}", userId);
+        return itemClient.importItems(userId, request.getInputStream(), MediaType.parseMediaType(request.getContentType()));
+    }
 }
\ No newline at end of file
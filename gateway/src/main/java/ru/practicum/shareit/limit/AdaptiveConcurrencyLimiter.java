@@ -0,0 +1,118 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов (AIMD): лимит растёт на единицу, пока ответы приходят быстро
+ * и он используется хотя бы наполовину, и умножается на backoffRatio, когда время ответа превышает
+ * базовое в latencyTolerance раз или сервер отвечает ошибкой. Как в TCP, лимит снижается не чаще раза
+ * за время ответа: медленные ответы на запросы, начатые до последнего снижения, его уже не снижают.
+ * Базовое время у каждого класса эндпоинта своё — минимальное за последнее окно из baselineWindow его ответов:
+ * поиск не сравнивается с чтением одной вещи, и при смешанной нагрузке лимит не падает до минимального,
+ * а постоянное изменение времени ответа учитывается с каждым окном.
+ * Время учитывается только по ответам 2xx и 3xx: ответы 4xx приходят до основной работы сервера
+ * и о его загрузке не говорят.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final RequestLimitProperties.Concurrency properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    private final Map<EndpointClass, Baseline> baselines = new EnumMap<>(EndpointClass.class);
+    private long lastDecreaseAt = Long.MIN_VALUE;
+
+    public AdaptiveConcurrencyLimiter(RequestLimitProperties.Concurrency properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            baselines.put(endpointClass, new Baseline());
+        }
+        Gauge.builder("gateway.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий лимит одновременных запросов к шлюзу")
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Число выполняющихся запросов к шлюзу")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true, если запрос допущен; тогда после ответа нужно вызвать {@link #release}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param startNanos время начала запроса по {@link System#nanoTime()}
+     * @param endNanos   время окончания запроса по {@link System#nanoTime()}
+     * @param status     статус ответа; 5xx означает, что сервер не ответил или ответил ошибкой
+     */
+    public void release(EndpointClass endpointClass, long startNanos, long endNanos, int status) {
+        int current = inFlight.getAndDecrement();
+        if (status < 400 || status >= 500) {
+            onSample(endpointClass, startNanos, endNanos, status >= 500, current);
+        }
+    }
+
+    /**
+     * Освобождает место без учёта времени ответа: запрос отклонён шлюзом и не дошёл до сервера.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private synchronized void onSample(EndpointClass endpointClass, long startNanos, long endNanos, boolean failed,
+                                       int inFlightAtRelease) {
+        long rttNanos = endNanos - startNanos;
+        Baseline baseline = baselines.get(endpointClass);
+        if (!failed) {
+            baseline.add(rttNanos, properties.getBaselineWindow());
+        }
+
+        if (failed || rttNanos > baseline.rttNanos * properties.getLatencyTolerance()) {
+            if (lastDecreaseAt == Long.MIN_VALUE || startNanos - lastDecreaseAt > 0) {
+                limit = Math.max(properties.getMinLimit(), (int) (limit * properties.getBackoffRatio()));
+                lastDecreaseAt = endNanos;
+            }
+        } else if (inFlightAtRelease * 2 >= limit) {
+            limit = Math.min(properties.getMaxLimit(), limit + 1);
+        }
+    }
+
+    /**
+     * Базовое время ответа одного класса эндпоинта.
+     */
+    private static class Baseline {
+        private long rttNanos = Long.MAX_VALUE;
+        private long windowMinRtt = Long.MAX_VALUE;
+        private int windowSamples;
+
+        void add(long sampleRttNanos, int window) {
+            windowMinRtt = Math.min(windowMinRtt, sampleRttNanos);
+            rttNanos = Math.min(rttNanos, sampleRttNanos);
+            if (++windowSamples >= window) {
+                rttNanos = windowMinRtt;
+                windowMinRtt = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.limit;
+
+/**
+ * Класс эндпоинта шлюза, для каждого из которых у пользователя свой лимит запросов.
+ */
+public enum EndpointClass {
+    READ,
+    WRITE,
+    SEARCH;
+
+    public static EndpointClass of(String method, String path) {
+        if (path.endsWith("/search")) {
+            return SEARCH;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? READ : WRITE;
+    }
+}
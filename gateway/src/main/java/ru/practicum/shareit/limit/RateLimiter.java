@@ -0,0 +1,45 @@
+package ru.practicum.shareit.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Лимиты запросов по пользователю и классу эндпоинта. У каждой пары своя {@link TokenBucket};
+ * корзины, к которым долго не обращались, удаляются, а их общее число ограничено.
+ */
+public class RateLimiter {
+
+    private final Map<EndpointClass, RequestLimitProperties.Bucket> settings = new EnumMap<>(EndpointClass.class);
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(RequestLimitProperties.Rate properties, MeterRegistry meterRegistry) {
+        settings.put(EndpointClass.READ, properties.getRead());
+        settings.put(EndpointClass.WRITE, properties.getWrite());
+        settings.put(EndpointClass.SEARCH, properties.getSearch());
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxBuckets())
+                .build();
+        Gauge.builder("gateway.rate.limit.buckets", buckets, Cache::estimatedSize)
+                .description("Число корзин токенов пользователей в памяти")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param client идентификатор клиента: id пользователя или адрес, если id не передан
+     * @return 0, если запрос допущен, иначе через сколько наносекунд можно повторить запрос
+     */
+    public long tryAcquire(String client, EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(client + ":" + endpointClass.name(), key -> {
+            RequestLimitProperties.Bucket setting = settings.get(endpointClass);
+            return new TokenBucket(setting.getCapacity(), setting.getRefillPerSecond(), now);
+        });
+        return bucket.tryAcquire(now);
+    }
+}
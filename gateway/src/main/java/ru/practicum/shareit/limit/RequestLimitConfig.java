@@ -0,0 +1,35 @@
+package ru.practicum.shareit.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RequestLimitProperties.class)
+public class RequestLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.limit.rate.enabled", matchIfMissing = true)
+    public RateLimiter rateLimiter(RequestLimitProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties.getRate(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.limit.concurrency.enabled", matchIfMissing = true)
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(RequestLimitProperties properties,
+                                                                 MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(properties.getConcurrency(), meterRegistry);
+    }
+
+    @Bean
+    public RequestLimitFilter requestLimitFilter(ObjectProvider<RateLimiter> rateLimiter,
+                                                 ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+                                                 ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new RequestLimitFilter(rateLimiter.getIfAvailable(), concurrencyLimiter.getIfAvailable(),
+                objectMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ограничивает запросы к шлюзу до обращения к серверу ShareIt.
+ * Запрос сверх лимита пользователя получает 429 с Retry-After, запрос сверх адаптивного лимита
+ * одновременных запросов — 503. Для асинхронных запросов место в лимите освобождается
+ * по завершении ответа, а не по выходе из фильтра.
+ * Потоковые импорт и выгрузка длятся столько, сколько передаются данные, и время их ответа адаптивный лимит
+ * не учитывает.
+ */
+@Slf4j
+public class RequestLimitFilter extends OncePerRequestFilter {
+
+    private static final String REQUEST_HEADER_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final String REJECTED_METRIC = "gateway.requests.rejected";
+
+    @Nullable
+    private final RateLimiter rateLimiter;
+    @Nullable
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Counter shed;
+
+    public RequestLimitFilter(@Nullable RateLimiter rateLimiter, @Nullable AdaptiveConcurrencyLimiter concurrencyLimiter,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.shed = Counter.builder(REJECTED_METRIC)
+                .description("Запросы, отклонённые шлюзом до обращения к серверу")
+                .tag("reason", "concurrency_limit")
+                .tag("class", "any")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(client(request), endpointClass);
+            if (waitNanos > 0) {
+                rateLimited(endpointClass).increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                        "Превышен лимит запросов пользователя");
+                return;
+            }
+        }
+        if (concurrencyLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Шлюз перегружен, повторите запрос позже");
+            return;
+        }
+
+        long start = System.nanoTime();
+        Sample sample = new Sample(isStreaming(request) ? null : endpointClass, start);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(sample, response));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release(sample, response.getStatus());
+            }
+        }
+    }
+
+    /**
+     * 503 отдаёт сам шлюз, когда клиент сервера исчерпал свои места или его выключатель разомкнут;
+     * такие быстрые отказы не говорят о времени ответа сервера и не меняют общий лимит.
+     */
+    private void release(Sample sample, int status) {
+        if (!sample.released.compareAndSet(false, true)) {
+            return;
+        }
+        if (sample.endpointClass == null || status == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            concurrencyLimiter.releaseWithoutSample();
+        } else {
+            concurrencyLimiter.release(sample.endpointClass, sample.start, System.nanoTime(), status);
+        }
+    }
+
+    private static boolean isStreaming(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.endsWith("/export") || path.endsWith("/import");
+    }
+
+    private static String client(HttpServletRequest request) {
+        String userId = request.getHeader(REQUEST_HEADER_SHARER_USER_ID);
+        return userId != null ? userId : request.getRemoteAddr();
+    }
+
+    private Counter rateLimited(EndpointClass endpointClass) {
+        return Counter.builder(REJECTED_METRIC)
+                .description("Запросы, отклонённые шлюзом до обращения к серверу")
+                .tag("reason", "rate_limit")
+                .tag("class", endpointClass.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        log.debug("Запрос отклонён со статусом {}: {}", status.value(), message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(message));
+    }
+
+    /**
+     * Запрос, занявший место в адаптивном лимите.
+     */
+    private static class Sample {
+
+        /**
+         * Класс эндпоинта или null, если время ответа не учитывается.
+         */
+        @Nullable
+        private final EndpointClass endpointClass;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Sample(@Nullable EndpointClass endpointClass, long start) {
+            this.endpointClass = endpointClass;
+            this.start = start;
+        }
+    }
+
+    private class ReleaseListener implements AsyncListener {
+
+        private final Sample sample;
+        private final HttpServletResponse response;
+
+        ReleaseListener(Sample sample, HttpServletResponse response) {
+            this.sample = sample;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(sample, response.getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(sample, HttpStatus.GATEWAY_TIMEOUT.value());
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(sample, HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничения запросов к шлюзу: лимиты пользователей и адаптивный лимит одновременных запросов.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.limit")
+public class RequestLimitProperties {
+
+    private Rate rate = new Rate();
+
+    private Concurrency concurrency = new Concurrency();
+
+    @Data
+    public static class Rate {
+
+        /**
+         * Включает лимиты запросов по пользователю и классу эндпоинта.
+         */
+        private boolean enabled = true;
+
+        private Bucket read = new Bucket(50, 20);
+
+        private Bucket write = new Bucket(10, 5);
+
+        private Bucket search = new Bucket(10, 5);
+
+        /**
+         * Через сколько без запросов корзина пользователя удаляется. Новая корзина создаётся полной,
+         * поэтому время должно быть не меньше времени заполнения самой медленной корзины.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+
+        /**
+         * Максимальное число корзин в памяти.
+         */
+        private long maxBuckets = 100_000;
+    }
+
+    @Data
+    public static class Bucket {
+
+        /**
+         * Сколько запросов подряд пропускается без ожидания.
+         */
+        private int capacity;
+
+        /**
+         * Сколько запросов в секунду пропускается в среднем.
+         */
+        private double refillPerSecond;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    @Data
+    public static class Concurrency {
+
+        /**
+         * Включает сброс нагрузки по адаптивному лимиту одновременных запросов.
+         */
+        private boolean enabled = true;
+
+        private int initialLimit = 100;
+
+        private int minLimit = 10;
+
+        private int maxLimit = 1000;
+
+        /**
+         * Во сколько раз время ответа может превысить базовое, прежде чем лимит начнёт снижаться.
+         */
+        private double latencyTolerance = 2.0;
+
+        /**
+         * Множитель лимита при медленном ответе или ошибке сервера.
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Число ответов, по которым заново определяется базовое время ответа.
+         */
+        private int baselineWindow = 500;
+    }
+}
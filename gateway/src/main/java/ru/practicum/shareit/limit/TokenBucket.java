@@ -0,0 +1,45 @@
+package ru.practicum.shareit.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок, реализованная как GCRA: вместо числа токенов хранится
+ * теоретическое время прихода следующего запроса, которое сдвигается одной CAS операцией.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param capacity        сколько запросов подряд пропускает полная корзина
+     * @param refillPerSecond сколько токенов добавляется в секунду
+     * @param now             текущее время по {@link System#nanoTime()}; корзина создаётся полной
+     */
+    public TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Забирает токен.
+     *
+     * @param now текущее время по {@link System#nanoTime()}
+     * @return 0, если токен получен, иначе через сколько наносекунд появится следующий токен
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current - now < 0 ? now : current) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -11,6 +11,8 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @RequiredArgsConstructor
 @Slf4j
@@ -24,26 +26,27 @@ public class ItemRequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                      @Valid @RequestBody ItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> add(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                         @Valid @RequestBody ItemRequestDto requestDto) {
         return requestClient.addNewRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId) {
         return requestClient.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                                 @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
-                                                 @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size) {
-        return requestClient.getAllRequests(userId, from, size);
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                                    @RequestParam(name = "from", defaultValue = "0") @Min(0) Integer from,
+                                                                    @RequestParam(value = "size", defaultValue = "10") @Min(1) Integer size,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor) {
+        return requestClient.getAllRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
-                                      @PathVariable Long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> get(@RequestHeader(REQUEST_HEADER_SHARER_USER_ID) Long userId,
+                                                         @PathVariable Long requestId) {
         return requestClient.getRequestById(userId, requestId);
     }
 }
@@ -1,16 +1,25 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ShareItServerAsyncClient;
+import ru.practicum.shareit.client.ShareItServerLoadBalancer;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class RequestClient extends BaseClient {
@@ -18,33 +27,45 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(ShareItServerLoadBalancer loadBalancer, RestTemplateBuilder builder,
+                         HttpClient shareItServerHttpClient, ObjectProvider<ShareItServerAsyncClient> asyncClient,
+                         ObjectProvider<GatewayResponseCache> responseCache,
+                         ObjectProvider<SingleFlight> singleFlight,
+                         ClientResilienceProperties resilience,
+                         MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
+                        .build(),
+                loadBalancer,
+                asyncClient.getIfAvailable(),
+                responseCache.getIfAvailable(),
+                singleFlight.getIfAvailable(),
+                resilience,
+                meterRegistry,
+                "requests"
         );
     }
 
-    public ResponseEntity<Object> addNewRequest(Long userId, ItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> addNewRequest(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getUserRequests(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
+        ));
 
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get(withCursor("/all?from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(Long userId, Long requestId) {
+        return getCached("/" + requestId, userId);
     }
 }
\ No newline at end of file
@@ -1,47 +1,68 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ShareItServerAsyncClient;
+import ru.practicum.shareit.client.ShareItServerLoadBalancer;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(ShareItServerLoadBalancer loadBalancer, RestTemplateBuilder builder,
+                      HttpClient shareItServerHttpClient, ObjectProvider<ShareItServerAsyncClient> asyncClient,
+                      ObjectProvider<GatewayResponseCache> responseCache,
+                      ObjectProvider<SingleFlight> singleFlight,
+                      ClientResilienceProperties resilience,
+                      MeterRegistry meterRegistry) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
+                        .build(),
+                loadBalancer,
+                asyncClient.getIfAvailable(),
+                responseCache.getIfAvailable(),
+                singleFlight.getIfAvailable(),
+                resilience,
+                meterRegistry,
+                "users"
         );
     }
 
-    public ResponseEntity<Object> create(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getById(long userId) {
-        return get("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> getById(long userId) {
+        return getCached("/" + userId);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         return get("/");
     }
 
-    public ResponseEntity<Object> update(long userId, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteById(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteById(Long userId) {
         return delete("/" + userId);
     }
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RequiredArgsConstructor
 @RestController
@@ -17,31 +19,31 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@Valid @RequestBody UserDto user) {
+    public CompletableFuture<ResponseEntity<Object>> add(@Valid @RequestBody UserDto user) {
         log.info("POST запрос на создание пользователя: {}", user);
         return userClient.create(user);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@RequestBody UserDto userDto, @PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestBody UserDto userDto, @PathVariable Long userId) {
         log.info("PATCH запрос на обновление пользователя c id: {}", userId);
         return userClient.update(userId, userDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         log.info("GET запрос на получение списка всех пользователей.");
         return userClient.getAll();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> get(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> get(@PathVariable Long userId) {
         log.info("GET запрос на получение пользователя c id: {}", userId);
         return userClient.getById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable long userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable long userId) {
         log.info("DELETE запрос на удаление пользователя с id: {}", userId);
         return userClient.deleteById(userId);
     }
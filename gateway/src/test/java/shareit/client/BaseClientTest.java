@@ -0,0 +1,111 @@
+package shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ShareItServerAsyncClient;
+import ru.practicum.shareit.client.ShareItServerLoadBalancer;
+import ru.practicum.shareit.client.ShareItServerLoadBalancerProperties;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+/**
+ * Ответ сервера должен доходить до клиента шлюза как есть, кроме заголовков, относящихся к соединению.
+ */
+class BaseClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    private MockRestServiceServer server;
+    private UserClient userClient;
+
+    @BeforeEach
+    void init() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        RestTemplateBuilder builder = new RestTemplateBuilder(
+                restTemplate -> server = MockRestServiceServer.bindTo(restTemplate).build());
+        userClient = new UserClient(
+                new ShareItServerLoadBalancer(List.of(SERVER_URL), new ShareItServerLoadBalancerProperties(),
+                        meterRegistry),
+                builder,
+                HttpClients.createDefault(),
+                beans.getBeanProvider(ShareItServerAsyncClient.class),
+                beans.getBeanProvider(GatewayResponseCache.class),
+                beans.getBeanProvider(SingleFlight.class),
+                new ClientResilienceProperties(),
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Тестирование удаления заголовков соединения из ответа сервера")
+    void get_thenDropHopByHopHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        headers.set("Keep-Alive", "timeout=60");
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        headers.set(HttpHeaders.UPGRADE, "h2c");
+        headers.set(HttpHeaders.TRAILER, "Expires");
+        headers.setETag("\"1\"");
+        server.expect(requestTo(SERVER_URL + "/users/"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK)
+                        .headers(headers)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("[]"));
+
+        ResponseEntity<Object> response = userClient.getAll().join();
+
+        server.verify();
+        HttpHeaders forwarded = response.getHeaders();
+        assertFalse(forwarded.containsKey(HttpHeaders.CONNECTION));
+        assertFalse(forwarded.containsKey("Keep-Alive"));
+        assertFalse(forwarded.containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertFalse(forwarded.containsKey(HttpHeaders.UPGRADE));
+        assertFalse(forwarded.containsKey(HttpHeaders.TRAILER));
+        assertEquals("\"1\"", forwarded.getETag());
+        assertEquals(MediaType.APPLICATION_JSON, forwarded.getContentType());
+        assertArrayEquals("[]".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    @DisplayName("Тестирование передачи ответа сервера с ошибкой без изменений")
+    void patch_whenServerReturnsError_thenForwardStatusContentTypeAndBody() {
+        byte[] body = "{\"error\": \"Адрес электронной почты уже существует.\"}".getBytes(StandardCharsets.UTF_8);
+        MediaType contentType = new MediaType("application", "problem+json", StandardCharsets.UTF_8);
+        server.expect(requestTo(SERVER_URL + "/users/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withStatus(HttpStatus.CONFLICT)
+                        .contentType(contentType)
+                        .body(body));
+
+        ResponseEntity<Object> response = userClient.update(1L, UserDto.builder().name("name").build()).join();
+
+        server.verify();
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(contentType, response.getHeaders().getContentType());
+        assertArrayEquals(body, (byte[]) response.getBody());
+    }
+}
@@ -0,0 +1,109 @@
+package shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.client.CircuitBreaker;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void init() {
+        ClientResilienceProperties properties = new ClientResilienceProperties();
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+        circuitBreaker = new CircuitBreaker(properties);
+    }
+
+    @Test
+    @DisplayName("Тестирование размыкания выключателя при доле неудачных запросов выше порога")
+    void onResult_whenFailureRateReached_thenOpen() {
+        call(0, false);
+        call(0, false);
+        call(0, true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        call(0, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(-1, circuitBreaker.tryAcquire(9 * SECOND));
+    }
+
+    @Test
+    @DisplayName("Тестирование выключателя при числе запросов меньше минимального")
+    void onResult_whenBelowMinimumCalls_thenStayClosed() {
+        call(0, true);
+        call(0, true);
+        call(0, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Тестирование замыкания выключателя после удачных пробных запросов")
+    void tryAcquire_whenOpenDurationPassed_thenHalfOpenAndClose() {
+        open(0);
+
+        long first = circuitBreaker.tryAcquire(10 * SECOND);
+        long second = circuitBreaker.tryAcquire(10 * SECOND);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(first >= 0);
+        assertEquals(-1, circuitBreaker.tryAcquire(10 * SECOND));
+
+        circuitBreaker.onResult(first, false, 11 * SECOND);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onResult(second, false, 11 * SECOND);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Тестирование повторного размыкания выключателя при неудачном пробном запросе")
+    void onResult_whenHalfOpenCallFails_thenReopen() {
+        open(0);
+        long probe = circuitBreaker.tryAcquire(10 * SECOND);
+
+        circuitBreaker.onResult(probe, true, 11 * SECOND);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(-1, circuitBreaker.tryAcquire(20 * SECOND));
+        assertTrue(circuitBreaker.tryAcquire(21 * SECOND) >= 0);
+    }
+
+    @Test
+    @DisplayName("Тестирование результата запроса, начатого до смены состояния")
+    void onResult_whenPermitFromPreviousState_thenIgnore() {
+        long stale = circuitBreaker.tryAcquire(0);
+        open(0);
+        long probe = circuitBreaker.tryAcquire(10 * SECOND);
+
+        circuitBreaker.onResult(stale, true, 10 * SECOND);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        circuitBreaker.onResult(probe, false, 10 * SECOND);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    private void open(long now) {
+        for (int i = 0; i < 4; i++) {
+            call(now, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void call(long now, boolean failed) {
+        circuitBreaker.onResult(circuitBreaker.tryAcquire(now), failed, now);
+    }
+}
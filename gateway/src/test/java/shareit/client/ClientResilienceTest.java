@@ -0,0 +1,84 @@
+package shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.client.CircuitBreaker;
+import ru.practicum.shareit.client.ClientResilience;
+import ru.practicum.shareit.client.ClientResilienceProperties;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Раздел bookings сервера отвечает медленно, раздел items — быстро: медленные ответы должны занимать места
+ * и размыкать выключатель только клиента bookings.
+ */
+class ClientResilienceTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ClientResilience bookings;
+    private ClientResilience items;
+
+    @BeforeEach
+    void init() {
+        ClientResilienceProperties properties = new ClientResilienceProperties();
+        properties.setMaxConcurrentCalls(3);
+        properties.setMaxConcurrentCallsByClient(Map.of("bookings", 2));
+        properties.setSlowCallDuration(Duration.ofSeconds(1));
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        bookings = new ClientResilience("bookings", properties, meterRegistry, clock::get);
+        items = new ClientResilience("items", properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Тестирование лимита одновременных запросов медленного клиента")
+    void acquire_whenSlowClientIsFull_thenOtherClientStillAcquires() {
+        ClientResilience.Permit first = bookings.acquire();
+        bookings.acquire();
+
+        assertThrows(ServerUnavailableException.class, bookings::acquire);
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(items::acquire);
+        }
+        assertThrows(ServerUnavailableException.class, items::acquire);
+
+        first.release(false);
+        assertDoesNotThrow(bookings::acquire);
+        assertEquals(1.0, meterRegistry.get("gateway.circuit.breaker.calls")
+                .tag("client", "bookings").tag("outcome", "bulkhead_rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Тестирование размыкания выключателя только у клиента с медленными ответами")
+    void release_whenCallsAreSlow_thenOpenOnlyThatClient() {
+        for (int i = 0; i < 4; i++) {
+            ClientResilience.Permit slow = bookings.acquire();
+            ClientResilience.Permit fast = items.acquire();
+            fast.release(false);
+            clock.addAndGet(Duration.ofSeconds(2).toNanos());
+            slow.release(false);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, bookings.getState());
+        assertEquals(CircuitBreaker.State.CLOSED, items.getState());
+        assertThrows(ServerUnavailableException.class, bookings::acquire);
+        assertDoesNotThrow(items::acquire);
+        assertEquals(4.0, meterRegistry.get("gateway.circuit.breaker.calls")
+                .tag("client", "bookings").tag("outcome", "failure").counter().count());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertDoesNotThrow(bookings::acquire);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, bookings.getState());
+    }
+}
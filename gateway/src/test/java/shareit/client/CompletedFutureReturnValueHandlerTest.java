@@ -0,0 +1,101 @@
+package shareit.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.exceptions.ServerUnavailableException;
+import ru.practicum.shareit.user.UserClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Контроллеры шлюза возвращают CompletableFuture: завершённый отдаётся в потоке запроса,
+ * незавершённый и завершённый с ошибкой — через асинхронную обработку.
+ */
+@SpringBootTest(classes = ShareItGateway.class)
+@AutoConfigureMockMvc
+class CompletedFutureReturnValueHandlerTest {
+    private static final String USER = "{\"id\":1,\"name\":\"name\",\"email\":\"email@email.com\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserClient userClient;
+
+    @Test
+    @DisplayName("Тестирование ответа на завершённый CompletableFuture без асинхронной обработки")
+    void get_whenFutureCompleted_thenRespondSynchronously() throws Exception {
+        when(userClient.getById(1L)).thenReturn(CompletableFuture.completedFuture(user()));
+
+        mockMvc.perform(get("/users/1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(USER));
+    }
+
+    @Test
+    @DisplayName("Тестирование ответа на незавершённый CompletableFuture через asyncDispatch")
+    void get_whenFuturePending_thenRespondAfterAsyncDispatch() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+        when(userClient.getById(1L)).thenReturn(response);
+
+        MvcResult result = mockMvc.perform(get("/users/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        response.complete(user());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(USER));
+    }
+
+    @Test
+    @DisplayName("Тестирование ответа на CompletableFuture, завершённый с ошибкой")
+    void get_whenFutureFailed_thenRespondAsBlockingPath() throws Exception {
+        ServerUnavailableException exception = new ServerUnavailableException("Выключатель клиента users разомкнут");
+        when(userClient.getById(1L)).thenThrow(exception);
+        MvcResult blocking = mockMvc.perform(get("/users/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andReturn();
+
+        doReturn(CompletableFuture.failedFuture(new CompletionException(exception))).when(userClient).getById(1L);
+        MvcResult async = mockMvc.perform(get("/users/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().contentType(blocking.getResponse().getContentType()))
+                .andExpect(content().bytes(blocking.getResponse().getContentAsByteArray()));
+        assertEquals("{\"error\":\"Выключатель клиента users разомкнут\",\"stackTrace\":null}",
+                blocking.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<Object> user() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(USER.getBytes(StandardCharsets.UTF_8));
+    }
+}
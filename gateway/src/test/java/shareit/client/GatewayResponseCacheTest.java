@@ -0,0 +1,93 @@
+package shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.GatewayResponseCacheProperties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GatewayResponseCacheTest {
+    private static final int BODY_SIZE = 300;
+
+    private GatewayResponseCache cache;
+
+    @BeforeEach
+    void init() {
+        GatewayResponseCacheProperties properties = new GatewayResponseCacheProperties();
+        properties.setMaximumWeight(DataSize.ofMegabytes(1));
+        properties.setMaximumWeightPerUser(DataSize.ofBytes(1000));
+        cache = new GatewayResponseCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Тестирование ответа из кэша, когда сервер подтвердил ETag")
+    void onResponse_whenNotModified_thenReturnCachedBody() {
+        GatewayResponseCache.Key key = GatewayResponseCache.key("items", 1L, "/1");
+        cache.onResponse(key, null, ok("\"v0\"", new byte[]{1, 2, 3}));
+        GatewayResponseCache.CachedResponse cached = cache.get(key);
+
+        ResponseEntity<byte[]> response = cache.onResponse(key, cached,
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertArrayEquals(new byte[]{1, 2, 3}, response.getBody());
+        assertEquals("\"v0\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Тестирование удаления ответа из кэша при ответе с ошибкой")
+    void onResponse_whenError_thenInvalidate() {
+        GatewayResponseCache.Key key = GatewayResponseCache.key("items", 1L, "/1");
+        cache.onResponse(key, null, ok("\"v0\"", new byte[]{1}));
+
+        cache.onResponse(key, cache.get(key), ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    @DisplayName("Тестирование предела размера ответов одного пользователя")
+    void onResponse_whenUserExceedsOwnLimit_thenEvictOnlyOwnLeastRecent() {
+        GatewayResponseCache.Key other = GatewayResponseCache.key("users", 2L, "/2");
+        cache.onResponse(other, null, ok("\"v0\"", new byte[BODY_SIZE]));
+        GatewayResponseCache.Key first = GatewayResponseCache.key("items", 1L, "/1");
+        GatewayResponseCache.Key second = GatewayResponseCache.key("items", 1L, "/2");
+        GatewayResponseCache.Key third = GatewayResponseCache.key("items", 1L, "/3");
+        cache.onResponse(first, null, ok("\"v0\"", new byte[BODY_SIZE]));
+        cache.onResponse(second, null, ok("\"v0\"", new byte[BODY_SIZE]));
+        cache.get(first);
+
+        cache.onResponse(third, null, ok("\"v0\"", new byte[BODY_SIZE]));
+
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(third));
+        assertNotNull(cache.get(other));
+    }
+
+    @Test
+    @DisplayName("Тестирование ответа больше предела пользователя")
+    void onResponse_whenResponseExceedsUserLimit_thenDoNotCache() {
+        GatewayResponseCache.Key small = GatewayResponseCache.key("items", 1L, "/1");
+        GatewayResponseCache.Key large = GatewayResponseCache.key("items", 1L, "/2");
+        cache.onResponse(small, null, ok("\"v0\"", new byte[BODY_SIZE]));
+
+        cache.onResponse(large, null, ok("\"v0\"", new byte[2000]));
+
+        assertNull(cache.get(large));
+        assertNotNull(cache.get(small));
+    }
+
+    private static ResponseEntity<byte[]> ok(String eTag, byte[] body) {
+        return ResponseEntity.ok().eTag(eTag).body(body);
+    }
+}
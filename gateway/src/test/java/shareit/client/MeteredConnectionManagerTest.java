@@ -0,0 +1,78 @@
+package shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.client.MeteredConnectionManager;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Соединение из пула выдаётся без подключения к серверу, поэтому тесту сервер не нужен.
+ */
+class MeteredConnectionManagerTest {
+    private static final String POOL = "shareit-server";
+    private static final HttpRoute ROUTE = new HttpRoute(new HttpHost("localhost", 9090));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MeteredConnectionManager connectionManager;
+
+    @BeforeEach
+    void init() {
+        connectionManager = new MeteredConnectionManager(POOL);
+        connectionManager.setMaxTotal(1);
+        connectionManager.setDefaultMaxPerRoute(1);
+        connectionManager.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void close() {
+        connectionManager.shutdown();
+    }
+
+    @Test
+    @DisplayName("Тестирование замера времени получения соединения из пула")
+    void requestConnection_thenRecordLeaseAndTimeout() throws Exception {
+        HttpClientConnection connection = connectionManager.requestConnection(ROUTE, null)
+                .get(1, TimeUnit.SECONDS);
+
+        assertNotNull(connection);
+        assertEquals(1, meterRegistry.get("gateway.http.pool.lease")
+                .tags("httpclient", POOL, "outcome", "leased").timer().count());
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", POOL, "state", "leased").gauge().value());
+
+        assertThrows(ConnectionPoolTimeoutException.class,
+                () -> connectionManager.requestConnection(ROUTE, null).get(10, TimeUnit.MILLISECONDS));
+
+        assertEquals(1, meterRegistry.get("gateway.http.pool.lease")
+                .tags("httpclient", POOL, "outcome", "timeout").timer().count());
+        assertEquals(1, meterRegistry.get("gateway.http.pool.lease")
+                .tags("httpclient", POOL, "outcome", "leased").timer().count());
+    }
+
+    @Test
+    @DisplayName("Тестирование регистрации метрик пула")
+    void bindTo_thenRegisterPoolGauges() {
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", POOL).gauge().value());
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", POOL).gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", POOL).gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", POOL, "state", "available").gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", POOL, "state", "leased").gauge().value());
+    }
+}
@@ -0,0 +1,102 @@
+package shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.ShareItServerAsyncClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShareItServerAsyncClientTest {
+    private static final byte[] ERROR = "{\"error\": \"Пользователь не найден\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final AtomicReference<String> requestUser = new AtomicReference<>();
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private HttpServer server;
+    private ShareItServerAsyncClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            requestUser.set(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(404, ERROR.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(ERROR);
+            }
+        });
+        server.createContext("/stalled", exchange -> {
+            try {
+                stalled.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        client = new ShareItServerAsyncClient(HttpClient.newHttpClient(), new ObjectMapper(), Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void close() {
+        stalled.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Тестирование передачи статуса, заголовков и тела ответа без разбора")
+    void exchange_thenReturnRawResponse() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "1");
+
+        ResponseEntity<byte[]> response = client.exchange(uri("/users/1"), HttpMethod.PATCH, headers,
+                Map.of("name", "name")).join();
+
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals(ERROR, response.getBody());
+        assertEquals("{\"name\":\"name\"}", requestBody.get());
+        assertEquals("1", requestUser.get());
+    }
+
+    @Test
+    @DisplayName("Тестирование тайм-аута чтения ответа")
+    void exchange_whenServerStalls_thenFailWithTimeout() {
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> client.exchange(uri("/stalled"), HttpMethod.GET, new HttpHeaders(), null).join());
+
+        assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
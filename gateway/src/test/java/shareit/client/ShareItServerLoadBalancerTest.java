@@ -0,0 +1,111 @@
+package shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import ru.practicum.shareit.client.ServerEndpoint;
+import ru.practicum.shareit.client.ShareItServerLoadBalancer;
+import ru.practicum.shareit.client.ShareItServerLoadBalancerProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@Timeout(10)
+class ShareItServerLoadBalancerTest {
+    private static final int MAX_ATTEMPTS = 1000;
+    private static final String FIRST = "http://localhost:9090";
+    private static final String SECOND = "http://localhost:9091";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ShareItServerLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void init() {
+        ShareItServerLoadBalancerProperties properties = new ShareItServerLoadBalancerProperties();
+        properties.setMaxFailures(2);
+        properties.setEjectionDuration(Duration.ofSeconds(30));
+        loadBalancer = new ShareItServerLoadBalancer(List.of(FIRST, SECOND), properties, meterRegistry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Тестирование выбора экземпляра с меньшим числом выполняющихся запросов")
+    void choose_thenPreferLessOutstanding() {
+        ServerEndpoint busy = loadBalancer.choose();
+
+        for (int i = 0; i < 10; i++) {
+            ServerEndpoint chosen = loadBalancer.choose();
+            assertNotEquals(busy, chosen);
+            loadBalancer.release(chosen, false);
+        }
+        assertEquals(1, busy.getOutstanding());
+    }
+
+    @Test
+    @DisplayName("Тестирование исключения экземпляра после неудачных запросов подряд и его возвращения")
+    void release_whenMaxFailures_thenEjectAndReadmit() {
+        ServerEndpoint failing = loadBalancer.choose();
+        loadBalancer.release(failing, true);
+        send(failing, false);
+        assertTrue(failing.isAvailable(clock.get()));
+
+        send(failing, true);
+        assertTrue(failing.isAvailable(clock.get()));
+        send(failing, true);
+
+        assertFalse(failing.isAvailable(clock.get()));
+        assertEquals(1.0, meterRegistry.get("gateway.load.balancer.ejections")
+                .tag("endpoint", failing.getUrl()).counter().count());
+        for (int i = 0; i < 10; i++) {
+            ServerEndpoint chosen = loadBalancer.choose();
+            assertNotEquals(failing, chosen);
+            loadBalancer.release(chosen, false);
+        }
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        assertTrue(failing.isAvailable(clock.get()));
+        ServerEndpoint held = loadBalancer.choose();
+        ServerEndpoint next = loadBalancer.choose();
+        assertEquals(Set.of(FIRST, SECOND), Set.of(held.getUrl(), next.getUrl()));
+    }
+
+    @Test
+    @DisplayName("Тестирование выбора экземпляра, когда все исключены")
+    void choose_whenAllEjected_thenUseAll() {
+        for (int i = 0; i < 4; i++) {
+            loadBalancer.release(loadBalancer.choose(), true);
+        }
+
+        ServerEndpoint chosen = loadBalancer.choose();
+
+        assertFalse(chosen.isAvailable(clock.get()));
+        assertEquals(1.0, meterRegistry.get("gateway.load.balancer.no.available.endpoint").counter().count());
+    }
+
+    /**
+     * Отправляет запрос на нужный экземпляр с заданным результатом; запросы к другому экземпляру удачны.
+     * Если экземпляр не выбирается, тест завершается неудачей, а не зависает.
+     */
+    private void send(ServerEndpoint endpoint, boolean failed) {
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            ServerEndpoint chosen = loadBalancer.choose();
+            if (chosen == endpoint) {
+                loadBalancer.release(chosen, failed);
+                return;
+            }
+            loadBalancer.release(chosen, false);
+        }
+        fail("Экземпляр " + endpoint.getUrl() + " не выбран за " + MAX_ATTEMPTS + " попыток");
+    }
+}
@@ -0,0 +1,109 @@
+package shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.SingleFlightProperties;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private static final String KEY = "items /items/1 1 null";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ResponseEntity<byte[]> response = ResponseEntity.ok(new byte[]{1});
+
+    @Test
+    @DisplayName("Тестирование объединения одинаковых одновременных запросов")
+    void execute_whenConcurrent_thenCallOnce() {
+        SingleFlight singleFlight = singleFlight(Duration.ZERO);
+        CompletableFuture<ResponseEntity<byte[]>> pending = new CompletableFuture<>();
+
+        CompletableFuture<ResponseEntity<byte[]>> leader = singleFlight.execute(KEY, () -> call(pending));
+        CompletableFuture<ResponseEntity<byte[]>> follower = singleFlight.execute(KEY, () -> call(pending));
+        CompletableFuture<ResponseEntity<byte[]>> other = singleFlight.execute("users /users/1 1 null",
+                () -> call(new CompletableFuture<>()));
+
+        assertEquals(2, calls.get());
+        assertFalse(follower.isDone());
+        pending.complete(response);
+        assertSame(response, leader.join());
+        assertSame(response, follower.join());
+        assertFalse(other.isDone());
+
+        singleFlight.execute(KEY, () -> call(CompletableFuture.completedFuture(response)));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("Тестирование повторного использования ответа в течение окна")
+    void execute_whenWithinWindow_thenReuseResponse() {
+        SingleFlight singleFlight = singleFlight(Duration.ofMinutes(1));
+        singleFlight.execute(KEY, () -> call(CompletableFuture.completedFuture(response)));
+
+        clock.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertSame(response, singleFlight.execute(KEY, () -> call(new CompletableFuture<>())).join());
+        assertEquals(1, calls.get());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        singleFlight.execute(KEY, () -> call(new CompletableFuture<>()));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Тестирование ошибки запроса, которая не переиспользуется следующими запросами")
+    void execute_whenCallFails_thenNextRequestCallsAgain() {
+        SingleFlight singleFlight = singleFlight(Duration.ofMinutes(1));
+        CompletableFuture<ResponseEntity<byte[]>> pending = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> leader = singleFlight.execute(KEY, () -> call(pending));
+        CompletableFuture<ResponseEntity<byte[]>> follower = singleFlight.execute(KEY, () -> call(pending));
+
+        pending.completeExceptionally(new IOException("connection reset"));
+
+        assertThrows(CompletionException.class, leader::join);
+        assertThrows(CompletionException.class, follower::join);
+        assertSame(response, singleFlight.execute(KEY,
+                () -> call(CompletableFuture.completedFuture(response))).join());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Тестирование исключения при отправке запроса")
+    void execute_whenCallThrows_thenCompleteExceptionallyAndForgetKey() {
+        SingleFlight singleFlight = singleFlight(Duration.ofMinutes(1));
+
+        CompletableFuture<ResponseEntity<byte[]>> failed = singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("no permit");
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        singleFlight.execute(KEY, () -> call(CompletableFuture.completedFuture(response)));
+        assertEquals(2, calls.get());
+    }
+
+    private SingleFlight singleFlight(Duration window) {
+        SingleFlightProperties properties = new SingleFlightProperties();
+        properties.setWindow(window);
+        return new SingleFlight(properties, new SimpleMeterRegistry(), clock::get);
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> call(CompletableFuture<ResponseEntity<byte[]>> result) {
+        calls.incrementAndGet();
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package shareit.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.limit.AdaptiveConcurrencyLimiter;
+import ru.practicum.shareit.limit.EndpointClass;
+import ru.practicum.shareit.limit.RequestLimitProperties;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long MS = Duration.ofMillis(1).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            new RequestLimitProperties.Concurrency(), new SimpleMeterRegistry());
+    private long now;
+
+    @Test
+    @DisplayName("Тестирование лимита при постоянной смеси быстрых и медленных эндпоинтов")
+    void release_whenFixedMixOfFastAndSlowEndpoints_thenLimitStable() {
+        for (int i = 0; i < 2000; i++) {
+            call(EndpointClass.READ, 10 * MS, 200);
+            call(EndpointClass.SEARCH, 100 * MS, 200);
+            call(EndpointClass.WRITE, 30 * MS, 201);
+        }
+
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Тестирование снижения лимита, если смесь эндпоинтов сравнивать с одним базовым временем")
+    void release_whenMixSharesOneClass_thenLimitCollapses() {
+        for (int i = 0; i < 2000; i++) {
+            call(EndpointClass.READ, 10 * MS, 200);
+            call(EndpointClass.READ, 100 * MS, 200);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Тестирование снижения лимита при замедлении ответов эндпоинта")
+    void release_whenClassSlowsDown_thenDecrease() {
+        call(EndpointClass.SEARCH, 100 * MS, 200);
+        call(EndpointClass.READ, 10 * MS, 200);
+
+        call(EndpointClass.READ, 50 * MS, 200);
+
+        assertEquals(90, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Тестирование ответов 4xx, которые не учитываются во времени ответа")
+    void release_whenClientError_thenNoSample() {
+        call(EndpointClass.READ, 10 * MS, 200);
+
+        call(EndpointClass.READ, MS, 404);
+        call(EndpointClass.READ, 100 * MS, 400);
+        call(EndpointClass.READ, 15 * MS, 200);
+
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Тестирование снижения лимита при ошибке сервера не чаще раза за время ответа")
+    void release_whenServerErrors_thenDecreaseOncePerRtt() {
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        long start = now;
+
+        limiter.release(EndpointClass.WRITE, start, start + 10 * MS, 502);
+        limiter.release(EndpointClass.WRITE, start, start + 20 * MS, 504);
+        assertEquals(90, limiter.getLimit());
+
+        now = start + 30 * MS;
+        call(EndpointClass.WRITE, 10 * MS, 500);
+        assertEquals(81, limiter.getLimit());
+    }
+
+    private void call(EndpointClass endpointClass, long rttNanos, int status) {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(endpointClass, now, now + rttNanos, status);
+        now += rttNanos;
+    }
+}
@@ -0,0 +1,51 @@
+package shareit.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.limit.TokenBucket;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+    private static final long INTERVAL = Duration.ofMillis(100).toNanos();
+
+    private final TokenBucket bucket = new TokenBucket(3, 10, 0);
+
+    @Test
+    @DisplayName("Тестирование пропуска запросов подряд в пределах ёмкости корзины")
+    void tryAcquire_whenBurstExceedsCapacity_thenReturnWait() {
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+
+        assertEquals(INTERVAL, bucket.tryAcquire(0));
+        assertEquals(INTERVAL / 2, bucket.tryAcquire(INTERVAL / 2));
+    }
+
+    @Test
+    @DisplayName("Тестирование пополнения корзины со временем")
+    void tryAcquire_whenIntervalPassed_thenRefillOneToken() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        assertEquals(0, bucket.tryAcquire(INTERVAL));
+        assertEquals(INTERVAL, bucket.tryAcquire(INTERVAL));
+        assertEquals(0, bucket.tryAcquire(3 * INTERVAL));
+        assertEquals(0, bucket.tryAcquire(3 * INTERVAL));
+        assertEquals(INTERVAL, bucket.tryAcquire(3 * INTERVAL));
+    }
+
+    @Test
+    @DisplayName("Тестирование ёмкости корзины после долгого простоя")
+    void tryAcquire_whenIdleLong_thenAllowOnlyCapacity() {
+        long now = Duration.ofMinutes(10).toNanos();
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(INTERVAL, bucket.tryAcquire(now));
+    }
+}
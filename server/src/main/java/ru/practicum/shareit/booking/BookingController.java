@@ -2,13 +2,18 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.List;
 import java.util.Objects;
@@ -41,6 +46,14 @@ public class BookingController {
         return ResponseEntity.ok(updatedBooking);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BookingDecisionResultDto>> updateStatuses(@RequestHeader(XSHARERUSERID) Long userId,
+                                                                         @RequestBody List<BookingDecisionDto> decisions) {
+        log.info("PATCH запрос на пакетное обновление статусов {} бронирований от владельца с id: {}",
+                decisions.size(), userId);
+        return ResponseEntity.ok(bookingService.updateAll(userId, decisions));
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDtoOut> getBookingById(@RequestHeader(XSHARERUSERID) Long userId,
                                                         @PathVariable("bookingId")
@@ -54,23 +67,34 @@ public class BookingController {
     public ResponseEntity<List<BookingDtoOut>> getAll(@RequestHeader(XSHARERUSERID) Long userId,
                                                       @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
                                                       @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                                      @RequestParam(value = "size", defaultValue = "10") Integer size) {
+                                                      @RequestParam(value = "size", defaultValue = "10") Integer size,
+                                                      @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("GET запрос на получение списка всех бронирований текущего пользователя с id: {} и статусом {}",
                 userId, bookingState);
         validState(bookingState);
-        List<BookingDtoOut> bookings = bookingService.getAll(userId, bookingState, from, size);
-        return ResponseEntity.ok(bookings);
+        CursorPage<BookingDtoOut> bookings = bookingService.getAll(userId, bookingState, from, size, cursor);
+        return bookings.toResponseEntity();
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingDtoOut>> getAllOwner(@RequestHeader(XSHARERUSERID) Long ownerId,
                                                            @RequestParam(value = "state", defaultValue = "ALL") String bookingState,
                                                            @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                                           @RequestParam(value = "size", defaultValue = "10") Integer size) {
+                                                           @RequestParam(value = "size", defaultValue = "10") Integer size,
+                                                           @RequestParam(value = "cursor", required = false) String cursor) {
         log.info("GET запрос на получение списка всех бронирований текущего владельца с id: {} и статусом {}", ownerId, bookingState);
         validState(bookingState);
-        List<BookingDtoOut> ownerBookings = bookingService.getAllOwner(ownerId, bookingState, from, size);
-        return ResponseEntity.ok(ownerBookings);
+        CursorPage<BookingDtoOut> ownerBookings = bookingService.getAllOwner(ownerId, bookingState, from, size,
+                cursor);
+        return ownerBookings.toResponseEntity();
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportAllOwner(@RequestHeader(XSHARERUSERID) Long ownerId) {
+        log.info("GET запрос на выгрузку всех бронирований владельца с id: {}", ownerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingService.exportAllOwner(ownerId));
     }
 
     private void validState(String bookingState) {
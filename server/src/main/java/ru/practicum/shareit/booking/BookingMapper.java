@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookedItemDto;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -26,12 +30,26 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(toBookedItemDto(booking.getItem()))
+                .booker(toBookerDto(booking.getBooker()))
                 .status(booking.getStatus())
                 .build();
     }
 
+    public static BookedItemDto toBookedItemDto(Item item) {
+        return BookedItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .build();
+    }
+
+    public static BookerDto toBookerDto(User booker) {
+        return BookerDto.builder()
+                .id(booker.getId())
+                .name(booker.getName())
+                .build();
+    }
+
     public static BookingItemDto toBookingItemDto(Booking booking) {
         return BookingItemDto.builder()
                 .id(booking.getId())
@@ -39,4 +57,29 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingItemDto toBookingItemDto(BookingItemView booking) {
+        return BookingItemDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
+    public static BookingItemDto toLastBookingItemDto(ItemBookingSummary summary) {
+        if (summary.getLastBookingId() == null)
+            return null;
+        return BookingItemDto.builder()
+                .id(summary.getLastBookingId())
+                .bookerId(summary.getLastBookerId())
+                .build();
+    }
+
+    public static BookingItemDto toNextBookingItemDto(ItemBookingSummary summary) {
+        if (summary.getNextBookingId() == null)
+            return null;
+        return BookingItemDto.builder()
+                .id(summary.getNextBookingId())
+                .bookerId(summary.getNextBookerId())
+                .build();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingDecisionView {
+    Long getId();
+
+    String getStatus();
+
+    Long getItemId();
+
+    Long getOwnerId();
+}
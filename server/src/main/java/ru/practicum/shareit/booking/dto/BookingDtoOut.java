@@ -7,8 +7,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import javax.validation.constraints.Future;
 import javax.validation.constraints.FutureOrPresent;
@@ -21,7 +19,7 @@ import java.time.LocalDateTime;
 @Builder
 public class BookingDtoOut {
     private Long id;
-    private Item item;
+    private BookedItemDto item;
 
     @NotNull
     @FutureOrPresent
@@ -32,8 +30,17 @@ public class BookingDtoOut {
     @Future
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime end;
-    private User booker;
+    private BookerDto booker;
     private BookingStatus status;
 
+    /**
+     * Конструктор для выражения SELECT new: бронирование выбирается одним запросом вместе с колонками вещи
+     * и автора, которые попадают в ответ, без загрузки сущностей.
+     */
+    public BookingDtoOut(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                         Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, new BookedItemDto(itemId, itemName), start, end, new BookerDto(bookerId, bookerName), status);
+    }
+
 }
 
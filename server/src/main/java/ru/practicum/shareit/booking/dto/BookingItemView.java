@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция бронирования для карточки вещи: идентификаторы и даты, без загрузки связанных сущностей.
+ */
+public interface BookingItemView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал бронирования вещи: полуоткрытый отрезок [start, end).
+ */
+@Data
+@AllArgsConstructor
+public class BookingInterval {
+    private Long bookingId;
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && otherStart.isBefore(end);
+    }
+}
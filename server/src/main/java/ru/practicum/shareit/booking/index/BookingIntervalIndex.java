@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс интервалов бронирований в памяти: для каждой вещи хранится дерево интервалов
+ * бронирований в статусах WAITING и APPROVED.
+ * Заполняется из {@link BookingRepository} при старте и поддерживается при создании и изменении бронирований.
+ * Индекс видит только изменения своего экземпляра сервера, поэтому при нескольких экземплярах его отключают
+ * свойством {@code shareit.booking-index.enabled=false}: пересечения всё равно проверяются запросом к базе.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking-index.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingIntervalIndex {
+
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingIntervalTree> trees = new ConcurrentHashMap<>();
+    private final Map<Long, BookingInterval> intervals = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<BookingInterval> active = bookingRepository.findAllIntervals(ACTIVE_STATUSES, LocalDateTime.now());
+        active.forEach(this::add);
+        log.info("Индекс интервалов бронирований загружен: {} бронирований по {} вещам.", active.size(), trees.size());
+    }
+
+    /**
+     * Возвращает бронирование, пересекающееся с периодом [start, end) у вещи.
+     *
+     * @param itemId id вещи
+     * @param start  начало периода
+     * @param end    окончание периода
+     * @return пересекающийся интервал, если он есть
+     */
+    public Optional<BookingInterval> findConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return Optional.empty();
+        }
+        synchronized (tree) {
+            return tree.findAnyOverlap(start, end);
+        }
+    }
+
+    public boolean isAvailable(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return findConflict(itemId, start, end).isEmpty();
+    }
+
+    public List<BookingInterval> findOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return Collections.emptyList();
+        }
+        synchronized (tree) {
+            return tree.findOverlaps(start, end);
+        }
+    }
+
+    /**
+     * Атомарно проверяет отсутствие пересечений и занимает интервал за бронированием.
+     * Если текущая транзакция будет откачена, интервал освобождается.
+     *
+     * @param interval интервал нового бронирования
+     * @return пересекающийся интервал, если занять период не удалось
+     */
+    public Optional<BookingInterval> reserve(BookingInterval interval) {
+        BookingIntervalTree tree = trees.computeIfAbsent(interval.getItemId(), id -> new BookingIntervalTree());
+        synchronized (tree) {
+            Optional<BookingInterval> conflict = tree.findAnyOverlap(interval.getStart(), interval.getEnd());
+            if (conflict.isPresent()) {
+                return conflict;
+            }
+            tree.insert(interval);
+            intervals.put(interval.getBookingId(), interval);
+        }
+        TransactionCallbacks.onRollback(() -> release(interval.getBookingId()));
+        return Optional.empty();
+    }
+
+    /**
+     * Освобождает интервал бронирования после фиксации текущей транзакции.
+     *
+     * @param bookingId id бронирования
+     */
+    public void releaseAfterCommit(Long bookingId) {
+        TransactionCallbacks.afterCommit(() -> release(bookingId));
+    }
+
+    public void release(Long bookingId) {
+        BookingInterval interval = intervals.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+        BookingIntervalTree tree = trees.get(interval.getItemId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(interval);
+            }
+        }
+    }
+
+    private void add(BookingInterval interval) {
+        BookingIntervalTree tree = trees.computeIfAbsent(interval.getItemId(), id -> new BookingIntervalTree());
+        synchronized (tree) {
+            tree.insert(interval);
+        }
+        intervals.put(interval.getBookingId(), interval);
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Дерево интервалов бронирований одной вещи.
+ * Сбалансированное AVL-дерево по (start, bookingId), в каждом узле хранится максимальная дата окончания
+ * в поддереве, поэтому поиск пересечения выполняется за O(log n).
+ * Класс не потокобезопасен, синхронизация выполняется в {@link BookingIntervalIndex}.
+ */
+public class BookingIntervalTree {
+
+    private static final Comparator<BookingInterval> ORDER = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getBookingId);
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void insert(BookingInterval interval) {
+        root = insert(root, interval);
+    }
+
+    public boolean remove(BookingInterval interval) {
+        int before = size;
+        root = remove(root, interval);
+        return size < before;
+    }
+
+    /**
+     * Возвращает любой интервал, пересекающийся с [start, end).
+     *
+     * @param start начало проверяемого периода
+     * @param end   окончание проверяемого периода
+     * @return пересекающийся интервал, если он есть
+     */
+    public Optional<BookingInterval> findAnyOverlap(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.interval.overlaps(start, end)) {
+                return Optional.of(node.interval);
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Возвращает все интервалы, пересекающиеся с [start, end), в порядке возрастания даты начала.
+     *
+     * @param start начало проверяемого периода
+     * @param end   окончание проверяемого периода
+     * @return список пересекающихся интервалов
+     */
+    public List<BookingInterval> findOverlaps(LocalDateTime start, LocalDateTime end) {
+        List<BookingInterval> result = new ArrayList<>();
+        collectOverlaps(root, start, end, result);
+        return result;
+    }
+
+    private void collectOverlaps(Node node, LocalDateTime start, LocalDateTime end, List<BookingInterval> result) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return;
+        }
+        collectOverlaps(node.left, start, end, result);
+        if (node.interval.overlaps(start, end)) {
+            result.add(node.interval);
+        }
+        if (node.interval.getStart().isBefore(end)) {
+            collectOverlaps(node.right, start, end, result);
+        }
+    }
+
+    private Node insert(Node node, BookingInterval interval) {
+        if (node == null) {
+            size++;
+            return new Node(interval);
+        }
+        int cmp = ORDER.compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = insert(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, interval);
+        } else {
+            node.interval = interval;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = remove(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, interval);
+        } else {
+            if (node.left == null || node.right == null) {
+                size--;
+                return node.left == null ? node.right : node.left;
+            }
+            Node min = node.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            node.interval = min.interval;
+            node.right = remove(node.right, min.interval);
+        }
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        LocalDateTime maxEnd = node.interval.getEnd();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private BookingInterval interval;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+        }
+    }
+}
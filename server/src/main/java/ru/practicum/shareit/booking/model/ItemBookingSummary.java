@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и следующее подтверждённое бронирование вещи, сохранённые при записи бронирований,
+ * чтобы карточка вещи читала их одной строкой по ключу. Строка есть только у вещей с подтверждёнными
+ * бронированиями. Когда следующее бронирование начинается, строка устаревает до переноса по расписанию.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start_date")
+    private LocalDateTime lastStart;
+
+    @Column(name = "last_end_date")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start_date")
+    private LocalDateTime nextStart;
+
+    @Column(name = "next_end_date")
+    private LocalDateTime nextEnd;
+
+    /**
+     * Следующее бронирование уже началось: последнее и следующее нужно пересчитать по бронированиям.
+     */
+    public boolean isStale(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+}
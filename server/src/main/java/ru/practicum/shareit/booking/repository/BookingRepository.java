@@ -1,101 +1,35 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDecisionView;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.NdjsonExporter;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-@Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllByBookerId(Long userId, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND ?2 BETWEEN b.start_date AND b.end_date " +
-            "ORDER BY b.start_date ASC ", nativeQuery = true)
-    Page<Booking> findAllCurrentBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.end_date < ?2 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllPastBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.start_date > ?2 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllFutureBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.status = 'WAITING' " +
-            "AND b.start_date > ?2 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllWaitingBookingsByBookerId(Long bookerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE b.booker_id = ?1 " +
-            "AND b.status = 'REJECTED' " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllRejectedBookingsByBookerId(Long bookerId, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id  " +
-            "WHERE i.owner_id = ?1 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllByOwnerId(Long ownerId, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND ?2 BETWEEN b.start_date AND b.end_date " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllCurrentBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.end_date < ?2 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllPastBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.start_date > ?2 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllFutureBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.status = 'WAITING' " +
-            "AND b.start_date > ?2 " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllWaitingBookingsByOwnerId(Long ownerId, LocalDateTime currentTime, Pageable pageable);
-
-    @Query(value = "SELECT b.* FROM bookings as b " +
-            "JOIN items as i ON i.id = b.item_id " +
-            "WHERE i.owner_id = ?1 " +
-            "AND b.status = 'REJECTED' " +
-            "ORDER BY b.start_date DESC", nativeQuery = true)
-    Page<Booking> findAllRejectedBookingsByOwnerId(Long ownerId, Pageable pageable);
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    /**
+     * Бронирование вместе с вещью и автором: их названия и имена нужны для ответа.
+     * Владелец вещи не загружается, для проверки прав достаточно его id.
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
 
     @Query(value = "SELECT * FROM bookings as b " +
             "JOIN items as i ON i.id = b.item_id " +
@@ -113,6 +47,38 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "ORDER BY b.start_date ASC LIMIT 1 ", nativeQuery = true)
     Optional<Booking> getNextBooking(Long idItem, LocalDateTime currentTime);
 
+    @Query(value = "SELECT t.id AS id, t.item_id AS itemId, t.booker_id AS bookerId, " +
+            "t.start_date AS startDate, t.end_date AS endDate FROM (" +
+            "SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC) AS rn " +
+            "FROM bookings as b " +
+            "WHERE b.item_id IN (?1) " +
+            "AND b.start_date < ?2 " +
+            "AND b.status = 'APPROVED') as t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<BookingItemView> findLastBookings(List<Long> itemIds, LocalDateTime currentTime);
+
+    @Query(value = "SELECT t.id AS id, t.item_id AS itemId, t.booker_id AS bookerId, " +
+            "t.start_date AS startDate, t.end_date AS endDate FROM (" +
+            "SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC) AS rn " +
+            "FROM bookings as b " +
+            "WHERE b.item_id IN (?1) " +
+            "AND b.start_date > ?2 " +
+            "AND b.status = 'APPROVED') as t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<BookingItemView> findNextBookings(List<Long> itemIds, LocalDateTime currentTime);
+
+    /**
+     * Число подтверждённых бронирований вещи, начавшихся до указанного момента.
+     * Меняется, когда очередное бронирование из будущего становится последним.
+     */
+    @Query("SELECT COUNT(b) FROM Booking as b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.start < ?2")
+    long countStartedApproved(Long itemId, LocalDateTime currentTime);
+
     @Query(value = "SELECT b.* FROM bookings as b " +
             "JOIN items as i ON i.id = b.item_id " +
             "WHERE b.booker_id = ?1 " +
@@ -120,4 +86,67 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "AND b.status = 'APPROVED' " +
             "AND b.end_date < ?3 ", nativeQuery = true)
     List<Booking> findAllByUserBookings(Long userId, Long itemId, LocalDateTime now);
-}
\ No newline at end of file
+
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking as b " +
+            "WHERE b.status IN ?1 " +
+            "AND b.end > ?2")
+    List<BookingInterval> findAllIntervals(List<BookingStatus> statuses, LocalDateTime currentTime);
+
+    /**
+     * Бронирования вещи в статусах WAITING и APPROVED, пересекающиеся с периодом [start, end).
+     * Вызывается после блокировки строки вещи, поэтому проверка верна и при нескольких экземплярах сервера.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.index.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking as b " +
+            "WHERE b.item.id = ?1 " +
+            "AND b.status IN (ru.practicum.shareit.booking.model.BookingStatus.WAITING, " +
+            "ru.practicum.shareit.booking.model.BookingStatus.APPROVED) " +
+            "AND b.start < ?3 " +
+            "AND b.end > ?2")
+    List<BookingInterval> findOverlappingIntervals(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Меняет статус бронирования, только если оно ожидает подтверждения и вещь принадлежит владельцу.
+     *
+     * @return число изменённых строк: 1 при успехе, 0 если условие не выполнено
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking as b SET b.status = ?1 " +
+            "WHERE b.id = ?2 " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?3)")
+    int updateStatusIfWaiting(BookingStatus status, Long bookingId, Long ownerId);
+
+    /**
+     * Блокирует бронирования до конца транзакции и возвращает их статус и владельца вещи.
+     */
+    @Query(value = "SELECT b.id AS id, b.status AS status, b.item_id AS itemId, " +
+            "(SELECT i.owner_id FROM items as i WHERE i.id = b.item_id) AS ownerId " +
+            "FROM bookings as b " +
+            "WHERE b.id IN (?1) " +
+            "FOR UPDATE", nativeQuery = true)
+    List<BookingDecisionView> lockDecisionStates(List<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking as b SET b.status = ?1 " +
+            "WHERE b.id IN ?2 " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?3)")
+    int updateStatusesIfWaiting(BookingStatus status, List<Long> bookingIds, Long ownerId);
+
+    /**
+     * Все бронирования вещей владельца для выгрузки. Вещь и автор, которые попадают в выгрузку,
+     * загружаются тем же запросом, чтобы отсоединение бронирований при выгрузке не приводило к дополнительным запросам.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking as b " +
+            "JOIN FETCH b.item as i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.owner.id = ?1 " +
+            "ORDER BY b.id ASC")
+    Stream<Booking> streamAllByOwnerId(Long ownerId);
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.util.PageCursor;
+
+import java.time.LocalDateTime;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Возвращает бронирования пользователя в заданной роли и состоянии одним запросом с соединением вещи и автора.
+     * Выбираются только колонки, которые попадают в ответ, сущности не загружаются.
+     * Вместо {@link org.springframework.data.domain.Page} возвращается {@link Slice}: лишний запрос COUNT
+     * не выполняется, признак следующей страницы определяется по одной дополнительной строке.
+     * Бронирования упорядочены по дате начала и id.
+     *
+     * @param role        роль пользователя: автор бронирования или владелец вещи
+     * @param userId      id пользователя
+     * @param state       состояние бронирования
+     * @param currentTime текущее время
+     * @param after       позиция последнего бронирования предыдущей страницы или null
+     * @param pageable    параметры страницы
+     * @return срез бронирований
+     */
+    Slice<BookingDtoOut> findAllByState(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                  PageCursor after, Pageable pageable);
+
+    default Slice<BookingDtoOut> findAllByState(BookingRole role, Long userId, BookingState state,
+                                          LocalDateTime currentTime, Pageable pageable) {
+        return findAllByState(role, userId, state, currentTime, null, pageable);
+    }
+}
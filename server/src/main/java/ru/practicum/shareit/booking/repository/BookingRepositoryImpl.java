@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingDtoOut> findAllByState(BookingRole role, Long userId, BookingState state, LocalDateTime currentTime,
+                                         PageCursor after, Pageable pageable) {
+        boolean ascending = isAscending(role, state);
+        String direction = ascending ? "ASC" : "DESC";
+        StringBuilder jpql = new StringBuilder("SELECT new ru.practicum.shareit.booking.dto.BookingDtoOut(")
+                .append("b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) ")
+                .append("FROM Booking as b JOIN b.item as i JOIN b.booker as u WHERE ");
+        jpql.append(role == BookingRole.BOOKER ? "b.booker.id = :userId" : "i.owner.id = :userId");
+        jpql.append(stateCondition(state));
+        if (after != null) {
+            // нестрогое сравнение b.start повторяет условие с OR, но в отличие от него задаёт диапазон по индексу
+            String comparison = ascending ? ">" : "<";
+            jpql.append(" AND b.start ").append(comparison).append("= :afterStart")
+                    .append(" AND (b.start ").append(comparison).append(" :afterStart")
+                    .append(" OR (b.start = :afterStart AND b.id ").append(comparison).append(" :afterId))");
+        }
+        jpql.append(" ORDER BY b.start ").append(direction).append(", b.id ").append(direction);
+
+        TypedQuery<BookingDtoOut> query = entityManager.createQuery(jpql.toString(), BookingDtoOut.class)
+                .setParameter("userId", userId)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1);
+        if (after != null) {
+            query.setParameter("afterStart", after.getKey());
+            query.setParameter("afterId", after.getId());
+        }
+        if (usesCurrentTime(state)) {
+            query.setParameter("currentTime", currentTime);
+        }
+        if (state == BookingState.WAITING) {
+            query.setParameter("status", BookingStatus.WAITING);
+        } else if (state == BookingState.REJECTED) {
+            query.setParameter("status", BookingStatus.REJECTED);
+        }
+
+        List<BookingDtoOut> bookings = query.getResultList();
+        boolean hasNext = bookings.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? bookings.subList(0, pageable.getPageSize()) : bookings, pageable, hasNext);
+    }
+
+    private String stateCondition(BookingState state) {
+        switch (state) {
+            case CURRENT:
+                return " AND :currentTime BETWEEN b.start AND b.end";
+            case PAST:
+                return " AND b.end < :currentTime";
+            case FUTURE:
+                return " AND b.start > :currentTime";
+            case WAITING:
+                return " AND b.status = :status AND b.start > :currentTime";
+            case REJECTED:
+                return " AND b.status = :status";
+            default:
+                return "";
+        }
+    }
+
+    private boolean usesCurrentTime(BookingState state) {
+        return state == BookingState.CURRENT || state == BookingState.PAST || state == BookingState.FUTURE
+                || state == BookingState.WAITING;
+    }
+
+    private boolean isAscending(BookingRole role, BookingState state) {
+        // текущие бронирования автора исторически отдаются в порядке возрастания даты начала
+        return role == BookingRole.BOOKER && state == BookingState.CURRENT;
+    }
+}
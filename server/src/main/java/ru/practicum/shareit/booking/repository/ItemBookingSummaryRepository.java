@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    /**
+     * Вещи, у которых следующее бронирование уже началось, по индексу next_start_date.
+     */
+    @Query(value = "SELECT s.item_id FROM item_booking_summary as s " +
+            "WHERE s.next_start_date <= ?1 " +
+            "ORDER BY s.item_id " +
+            "LIMIT ?2", nativeQuery = true)
+    List<Long> findStaleItemIds(LocalDateTime currentTime, int limit);
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.List;
 
@@ -10,10 +14,22 @@ public interface BookingService {
 
     BookingDtoOut update(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingDecisionResultDto> updateAll(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDtoOut getBookingById(Long userId, Long bookingId);
 
-    List<BookingDtoOut> getAll(Long userId, String state, Integer from, Integer size);
+    /**
+     * Возвращает страницу бронирований автора. Если передан курсор, страница начинается после позиции из курсора
+     * и from не учитывается.
+     */
+    CursorPage<BookingDtoOut> getAll(Long userId, String state, Integer from, Integer size, String cursor);
+
+    CursorPage<BookingDtoOut> getAllOwner(Long userId, String state, Integer from, Integer size, String cursor);
 
-    List<BookingDtoOut> getAllOwner(Long userId, String state, Integer from, Integer size);
+    /**
+     * Проверяет владельца и возвращает выгрузку всех бронирований его вещей в формате NDJSON.
+     * Бронирования читаются из базы во время записи ответа.
+     */
+    StreamingResponseBody exportAllOwner(Long ownerId);
 
 }
@@ -2,17 +2,24 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionView;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.model.Item;
@@ -20,10 +27,14 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.NdjsonExporter;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,7 +44,15 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final Optional<BookingIntervalIndex> bookingIntervalIndex;
+    private final NdjsonExporter ndjsonExporter;
+    private final ItemBookingSummaryUpdater summaryUpdater;
 
+    /**
+     * Создаёт бронирование. Пересечения проверяются запросом к базе под блокировкой строки вещи,
+     * поэтому параллельные бронирования одной вещи не пересекутся и на разных экземплярах сервера.
+     * Индекс интервалов в памяти, если он включён, отклоняет пересечения без обращения к базе.
+     */
     @Override
     @Transactional
     public BookingDtoOut add(Long userId, BookingDto bookingDto) {
@@ -44,20 +63,98 @@ public class BookingServiceImpl implements BookingService {
         log.error("Вещь с id {} не найдена.", bookingDto.getItemId());
         Item item = itemById.get();
         bookingValidation(bookingDto, user, item);
-        Booking booking = BookingMapper.toBooking(user, item, bookingDto);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        itemRepository.lockByIds(List.of(item.getId()));
+        bookingRepository.findOverlappingIntervals(item.getId(), bookingDto.getStart(), bookingDto.getEnd())
+                .stream()
+                .findFirst()
+                .ifPresent(this::throwConflict);
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(user, item, bookingDto));
+        bookingIntervalIndex.ifPresent(index -> reserveInterval(index, booking));
+        return BookingMapper.toBookingOut(booking);
     }
 
+    /**
+     * Подтверждает или отклоняет бронирование одним условным UPDATE, поэтому из параллельных запросов
+     * статус меняет только один. Причина отказа выясняется отдельным запросом, только если строка не изменилась.
+     * Подтверждение пересчитывает сводку бронирований вещи в той же транзакции.
+     */
     @Override
     @Transactional
     public BookingDtoOut update(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = validateBookingDetails(userId, bookingId, 1);
-        assert booking != null;
-        if (approved)
-            booking.setStatus(BookingStatus.APPROVED);
-        else
-            booking.setStatus(BookingStatus.REJECTED);
-        return BookingMapper.toBookingOut(bookingRepository.save(booking));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(status, bookingId, userId) == 0) {
+            validateBookingDetails(userId, bookingId, 1);
+            log.warn("В брони с id {} уже изменили статус.", bookingId);
+            throw new ValidationException(String.format("Бронь c id %s уже изменил статус", bookingId));
+        }
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронь с id %s не найдена.", bookingId)));
+        if (approved) {
+            itemRepository.incrementBookedItemVersions(List.of(bookingId));
+            summaryUpdater.refresh(List.of(booking.getItem().getId()), LocalDateTime.now());
+        } else {
+            bookingIntervalIndex.ifPresent(index -> index.releaseAfterCommit(bookingId));
+        }
+        return BookingMapper.toBookingOut(booking);
+    }
+
+    /**
+     * Применяет решения владельца по нескольким бронированиям в одной транзакции.
+     * Бронирования блокируются одним запросом, затем статусы меняются не более чем двумя UPDATE:
+     * для подтверждённых и для отклонённых. Ошибка по одному бронированию не отменяет остальные решения.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> updateAll(Long userId, List<BookingDecisionDto> decisions) {
+        userService.checkExists(userId);
+        decisionsValidation(decisions);
+        if (decisions.isEmpty())
+            return new ArrayList<>();
+        List<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, BookingDecisionView> states = bookingRepository.lockDecisionStates(bookingIds).stream()
+                .collect(Collectors.toMap(BookingDecisionView::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        Set<Long> decided = new HashSet<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            BookingDecisionView state = states.get(bookingId);
+            BookingDecisionResultDto result = BookingDecisionResultDto.builder().bookingId(bookingId).build();
+            if (state == null) {
+                result.setError(String.format("Бронь с id %s не найдена.", bookingId));
+            } else if (!state.getOwnerId().equals(userId)) {
+                result.setError(String.format("Пользователь с id %s не является владельцем", userId));
+            } else if (!BookingStatus.WAITING.name().equals(state.getStatus()) || !decided.add(bookingId)) {
+                result.setError(String.format("Бронь c id %s уже изменил статус", bookingId));
+            } else if (decision.getApproved()) {
+                result.setStatus(BookingStatus.APPROVED);
+                approvedIds.add(bookingId);
+            } else {
+                result.setStatus(BookingStatus.REJECTED);
+                rejectedIds.add(bookingId);
+            }
+            results.add(result);
+        }
+
+        if (!approvedIds.isEmpty()) {
+            bookingRepository.updateStatusesIfWaiting(BookingStatus.APPROVED, approvedIds, userId);
+            itemRepository.incrementBookedItemVersions(approvedIds);
+            summaryUpdater.refresh(approvedIds.stream()
+                    .map(bookingId -> states.get(bookingId).getItemId())
+                    .collect(Collectors.toSet()), LocalDateTime.now());
+        }
+        if (!rejectedIds.isEmpty()) {
+            bookingRepository.updateStatusesIfWaiting(BookingStatus.REJECTED, rejectedIds, userId);
+            bookingIntervalIndex.ifPresent(index -> rejectedIds.forEach(index::releaseAfterCommit));
+        }
+        log.info("Пользователь с id {} подтвердил {} и отклонил {} бронирований из {}.", userId,
+                approvedIds.size(), rejectedIds.size(), decisions.size());
+        return results;
     }
 
     @Override
@@ -70,90 +167,51 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDtoOut> getAll(Long bookerId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        userService.getUserById(bookerId);
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return bookingRepository.findAllByBookerId(bookerId, pageable).getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByBookerId(bookerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByBookerId(bookerId, pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
-        }
+    public CursorPage<BookingDtoOut> getAll(Long bookerId, String state, Integer from, Integer size,
+                                            String cursor) {
+        userService.checkExists(bookerId);
+        return findAllByState(BookingRole.BOOKER, bookerId, state, from, size, cursor);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDtoOut> getAllOwner(Long ownerId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        userService.getUserById(ownerId);
-        switch (BookingState.valueOf(state)) {
-            case ALL:
-                return bookingRepository.findAllByOwnerId(ownerId, pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllCurrentBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case PAST:
-                return bookingRepository.findAllPastBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case FUTURE:
-                return bookingRepository.findAllFutureBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case WAITING:
-                return bookingRepository.findAllWaitingBookingsByOwnerId(ownerId, LocalDateTime.now(), pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-
-            case REJECTED:
-                return bookingRepository.findAllRejectedBookingsByOwnerId(ownerId, pageable)
-                        .getContent().stream()
-                        .map(BookingMapper::toBookingOut)
-                        .collect(Collectors.toList());
-            default:
-                throw new IllegalArgumentException("Unknown state: UNSUPPORTED_STATUS");
+    public CursorPage<BookingDtoOut> getAllOwner(Long ownerId, String state, Integer from, Integer size,
+                                                 String cursor) {
+        userService.checkExists(ownerId);
+        return findAllByState(BookingRole.OWNER, ownerId, state, from, size, cursor);
+    }
+
+    @Override
+    public StreamingResponseBody exportAllOwner(Long ownerId) {
+        userService.checkExists(ownerId);
+        return out -> {
+            long count = ndjsonExporter.export(() -> bookingRepository.streamAllByOwnerId(ownerId),
+                    BookingMapper::toBookingOut, out);
+            log.info("Выгружено {} бронирований вещей владельца с id: {}", count, ownerId);
+        };
+    }
+
+    private CursorPage<BookingDtoOut> findAllByState(BookingRole role, Long userId, String state, Integer from,
+                                                     Integer size, String cursor) {
+        PageCursor after = PageCursor.decode(cursor, true);
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(role, userId, BookingState.valueOf(state),
+                LocalDateTime.now(), after, OffsetPageRequest.ofOffset(after == null ? from : 0, size));
+        return CursorPage.of(bookings.getContent(), bookings.hasNext(),
+                booking -> PageCursor.of(booking.getStart(), booking.getId()),
+                Function.identity());
+    }
+
+    /**
+     * Решения без id бронирования или без approved отклоняют весь пакет: это ошибка запроса,
+     * а не состояние отдельного бронирования, которое сообщается в результатах.
+     */
+    private void decisionsValidation(List<BookingDecisionDto> decisions) {
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            if (decision == null || decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new ValidationException(
+                        String.format("Решение %s должно содержать bookingId и approved.", i));
+            }
         }
     }
 
@@ -185,10 +243,26 @@ public class BookingServiceImpl implements BookingService {
                             item.getId())
             );
         }
+        bookingIntervalIndex
+                .flatMap(index -> index.findConflict(item.getId(), bookingDto.getStart(), bookingDto.getEnd()))
+                .ifPresent(this::throwConflict);
+    }
+
+    private void reserveInterval(BookingIntervalIndex index, Booking booking) {
+        BookingInterval interval = new BookingInterval(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd());
+        index.reserve(interval).ifPresent(this::throwConflict);
+    }
+
+    private void throwConflict(BookingInterval conflict) {
+        log.warn("Вещь с id {} уже забронирована с {} по {}.", conflict.getItemId(), conflict.getStart(),
+                conflict.getEnd());
+        throw new ValidationException(String.format("Вещь с id %s уже забронирована с %s по %s.",
+                conflict.getItemId(), conflict.getStart(), conflict.getEnd()));
     }
 
     private Booking validateBookingDetails(Long userId, Long bookingId, Integer number) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> {
                     log.error("Бронь с id {} не найдена.", bookingId);
                     return new NotFoundException(String.format("Бронь с id %s не найдена.", bookingId));
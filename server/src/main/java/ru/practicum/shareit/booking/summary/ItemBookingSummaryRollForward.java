@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Периодически переносит начавшиеся следующие бронирования в последние.
+ * Без общей транзакции: каждая пачка вещей пересчитывается отдельно в {@link ItemBookingSummaryUpdater}.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaryRollForward {
+
+    private final ItemBookingSummaryUpdater summaryUpdater;
+    private final int batchSize;
+
+    public ItemBookingSummaryRollForward(ItemBookingSummaryUpdater summaryUpdater,
+                                         @Value("${shareit.booking-summary.roll-forward-batch-size:500}") int batchSize) {
+        this.summaryUpdater = summaryUpdater;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-summary.roll-forward-interval:PT1M}",
+            fixedDelayString = "${shareit.booking-summary.roll-forward-interval:PT1M}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int rolled;
+        do {
+            rolled = summaryUpdater.rollForward(now, batchSize);
+            total += rolled;
+        } while (rolled == batchSize);
+        if (total > 0)
+            log.info("Сводки бронирований пересчитаны для {} вещей с начавшимся следующим бронированием.", total);
+    }
+}
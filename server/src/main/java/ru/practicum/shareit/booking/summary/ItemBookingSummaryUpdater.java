@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Пересчитывает {@link ItemBookingSummary} по таблице бронирований в транзакции, изменившей бронирования.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryUpdater {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    /**
+     * Пересчитывает последнее и следующее подтверждённое бронирование вещей.
+     * Строки вещей блокируются до конца транзакции, поэтому пересчёты одной вещи из параллельных подтверждений
+     * и переноса по расписанию выполняются по очереди и каждый видит бронирования, зафиксированные предыдущим.
+     *
+     * @param itemIds id вещей
+     * @param now     момент, относительно которого бронирование считается последним или следующим
+     */
+    @Transactional
+    public void refresh(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty())
+            return;
+        List<Long> lockedIds = itemRepository.lockByIds(itemIds);
+        if (lockedIds.isEmpty())
+            return;
+        Map<Long, BookingItemView> lastBookings = bookingRepository.findLastBookings(lockedIds, now).stream()
+                .collect(Collectors.toMap(BookingItemView::getItemId, Function.identity()));
+        Map<Long, BookingItemView> nextBookings = bookingRepository.findNextBookings(lockedIds, now).stream()
+                .collect(Collectors.toMap(BookingItemView::getItemId, Function.identity()));
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(lockedIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        for (Long itemId : lockedIds) {
+            BookingItemView last = lastBookings.get(itemId);
+            BookingItemView next = nextBookings.get(itemId);
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null) {
+                if (last == null && next == null)
+                    continue;
+                summary = ItemBookingSummary.builder().itemId(itemId).build();
+                setBookings(summary, last, next);
+                summaryRepository.save(summary);
+            } else {
+                setBookings(summary, last, next);
+            }
+        }
+    }
+
+    /**
+     * Пересчитывает сводки вещей, у которых следующее бронирование уже началось.
+     *
+     * @param now   текущий момент
+     * @param limit наибольшее число пересчитываемых вещей
+     * @return число пересчитанных вещей
+     */
+    @Transactional
+    public int rollForward(LocalDateTime now, int limit) {
+        List<Long> itemIds = summaryRepository.findStaleItemIds(now, limit);
+        refresh(itemIds, now);
+        return itemIds.size();
+    }
+
+    private static void setBookings(ItemBookingSummary summary, BookingItemView last, BookingItemView next) {
+        summary.setLastBookingId(last == null ? null : last.getId());
+        summary.setLastBookerId(last == null ? null : last.getBookerId());
+        summary.setLastStart(last == null ? null : last.getStartDate());
+        summary.setLastEnd(last == null ? null : last.getEndDate());
+        summary.setNextBookingId(next == null ? null : next.getId());
+        summary.setNextBookerId(next == null ? null : next.getBookerId());
+        summary.setNextStart(next == null ? null : next.getStartDate());
+        summary.setNextEnd(next == null ? null : next.getEndDate());
+    }
+}
@@ -2,13 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.ETagged;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -36,28 +43,47 @@ public class ItemController {
         return ResponseEntity.ok(itemService.update(userId, itemId, itemDto));
     }
 
+    /**
+     * Отдаёт вещь с ETag. На условный запрос с совпадающим If-None-Match отвечает 304, не собирая DTO.
+     * Без If-None-Match вещь и ETag читаются одним запросом.
+     */
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemDto> get(@RequestHeader(XSHARERUSERID) Long userId,
-                                       @PathVariable Long itemId) {
+                                       @PathVariable Long itemId,
+                                       WebRequest webRequest) {
         log.info("GET запрос на получение вещи c id: {}", itemId);
-        return ResponseEntity.ok(itemService.getItemById(userId, itemId));
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(itemService.getItemETag(userId, itemId)))
+            return null;
+        ETagged<ItemDto> item = itemService.getItemWithETag(userId, itemId);
+        return ResponseEntity.ok().eTag(item.getETag()).body(item.getBody());
     }
 
     @GetMapping
     public ResponseEntity<List<ItemDto>> getAll(@RequestHeader(XSHARERUSERID) Long userId,
                                                 @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("GET запрос на получение всех вещей пользователя c id: {}", userId);
-        return ResponseEntity.ok(itemService.getAll(userId, from, size));
+        return itemService.getAll(userId, from, size, cursor).toResponseEntity();
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(@RequestHeader(XSHARERUSERID) Long userId) {
+        log.info("GET запрос на выгрузку всех вещей пользователя c id: {}", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemService.exportAll(userId));
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<ItemDto>> searchItems(@RequestHeader(XSHARERUSERID) Long userId,
                                                      @RequestParam(name = "text") String text,
                                                      @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                     @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                     @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                     @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("GET запрос на поиск всех вещей c текстом: {}", text);
-        return ResponseEntity.ok(itemService.search(userId, text, from, size));
+        return itemService.search(userId, text, from, size, cursor).toResponseEntity();
     }
 
     @PostMapping("/{itemId}/comment")
@@ -67,4 +93,12 @@ public class ItemController {
         return ResponseEntity.ok(itemService.createComment(userId, commentDto, itemId));
     }
 
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ItemImportResultDto> importItems(@RequestHeader(XSHARERUSERID) Long userId,
+                                                           InputStream body) {
+        log.info("POST запрос на пакетный импорт вещей пользователя c id: {}", userId);
+        return ResponseEntity.ok(itemService.importItems(userId, body));
+    }
+
 }
\ No newline at end of file
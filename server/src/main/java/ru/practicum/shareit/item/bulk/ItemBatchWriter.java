@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.bulk;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Сохраняет пачку импортируемых вещей одной пакетной вставкой JDBC в отдельной транзакции.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO items " +
+            "(id, name, description, available, owner_id, request_id, search_text) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INCREMENT_REQUEST_VERSION_SQL = "UPDATE requests SET version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemIdAllocator itemIdAllocator;
+    private final ItemSearch itemSearch;
+
+    @Transactional
+    public List<Item> write(Long ownerId, List<ItemImportRowDto> rows) {
+        long[] ids = itemIdAllocator.allocate(rows.size());
+        User owner = User.builder().id(ownerId).build();
+        List<Item> items = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ItemImportRowDto row = rows.get(i);
+            items.add(Item.builder()
+                    .id(ids[i])
+                    .name(row.getName())
+                    .description(row.getDescription())
+                    .available(row.getAvailable())
+                    .owner(owner)
+                    .itemRequest(row.getRequestId() == null ? null : ItemRequest.builder().id(row.getRequestId()).build())
+                    .searchText(Item.toSearchText(row.getName(), row.getDescription()))
+                    .build());
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (ps, item) -> {
+            ps.setLong(1, item.getId());
+            ps.setString(2, item.getName());
+            ps.setString(3, item.getDescription());
+            ps.setBoolean(4, item.getAvailable());
+            ps.setLong(5, ownerId);
+            if (item.getItemRequest() == null) {
+                ps.setNull(6, Types.BIGINT);
+            } else {
+                ps.setLong(6, item.getItemRequest().getId());
+            }
+            ps.setString(7, item.getSearchText());
+        });
+        List<Object[]> requestIds = rows.stream()
+                .map(ItemImportRowDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(requestId -> new Object[]{requestId})
+                .collect(Collectors.toList());
+        if (!requestIds.isEmpty())
+            jdbcTemplate.batchUpdate(INCREMENT_REQUEST_VERSION_SQL, requestIds);
+        items.forEach(item -> itemSearch.onSave(item, null));
+        return items;
+    }
+}
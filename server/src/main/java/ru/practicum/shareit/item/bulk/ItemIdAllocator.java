@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.bulk;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Выделяет идентификаторы вещей для пакетной вставки через JDBC.
+ * Одно обращение к последовательности {@link Item#ID_SEQUENCE} резервирует {@link Item#ID_ALLOCATION_SIZE}
+ * идентификаторов, так же как это делает Hibernate для сохраняемых через JPA вещей.
+ */
+@Component
+public class ItemIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private long next;
+    private long limit;
+
+    public ItemIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect()
+                .getSequenceNextValString(Item.ID_SEQUENCE);
+    }
+
+    public synchronized long[] allocate(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (next == limit) {
+                next = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                limit = next + Item.ID_ALLOCATION_SIZE;
+            }
+            ids[i] = next++;
+        }
+        return ids;
+    }
+}
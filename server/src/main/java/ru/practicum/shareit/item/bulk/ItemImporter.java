@@ -0,0 +1,186 @@
+package ru.practicum.shareit.item.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Потоковый импорт вещей из тела запроса в формате NDJSON (по объекту на строку) или JSON-массива объектов.
+ * Тело читается потоковым парсером Jackson, в памяти одновременно находится не больше одной пачки строк.
+ * Каждая строка проверяется сразу после чтения, некорректные строки пропускаются и попадают в отчёт.
+ * Корректные строки сохраняются пачками по {@code shareit.item-import.batch-size}, каждая пачка
+ * фиксируется в своей транзакции, поэтому при ошибке в середине тела уже сохранённые пачки остаются в базе.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final RequestRepository requestRepository;
+    private final ItemBatchWriter itemBatchWriter;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ItemImporter(ObjectMapper objectMapper,
+                        RequestRepository requestRepository,
+                        ItemBatchWriter itemBatchWriter,
+                        @Value("${shareit.item-import.batch-size:500}") int batchSize,
+                        @Value("${shareit.item-import.max-reported-errors:100}") int maxReportedErrors) {
+        this.objectMapper = objectMapper;
+        this.requestRepository = requestRepository;
+        this.itemBatchWriter = itemBatchWriter;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Импортирует вещи пользователя из потока.
+     *
+     * @param ownerId id владельца вещей
+     * @param body    тело запроса
+     * @return число сохранённых и отклонённых строк с первыми ошибками
+     */
+    public ItemImportResultDto importItems(Long ownerId, InputStream body) {
+        ImportRun run = new ImportRun(ownerId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                long row = ++run.rows;
+                if (token == JsonToken.START_OBJECT) {
+                    run.accept(row, parser.readValueAsTree());
+                } else {
+                    parser.skipChildren();
+                    run.reject(row, "Строка должна быть JSON-объектом");
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Импорт вещей пользователя {} прерван на строке {}: {}", ownerId, run.rows, e.getOriginalMessage());
+            run.reject(run.rows, String.format("Некорректный JSON (строка текста %s, позиция %s), импорт прерван",
+                    e.getLocation() == null ? "?" : e.getLocation().getLineNr(),
+                    e.getLocation() == null ? "?" : e.getLocation().getColumnNr()));
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось прочитать тело запроса: " + e.getMessage());
+        }
+        run.flush();
+        log.info("Импорт вещей пользователя {}: сохранено {}, отклонено {}.", ownerId, run.imported, run.rejected);
+        return ItemImportResultDto.builder()
+                .imported(run.imported)
+                .rejected(run.rejected)
+                .errors(run.errors)
+                .build();
+    }
+
+    private static String validate(ItemImportRowDto row) {
+        if (StringUtils.isBlank(row.getName())) {
+            return "Поле name не должно быть пустым";
+        }
+        if (row.getName().length() > MAX_TEXT_LENGTH) {
+            return "Имя не должно превышать 255 символов";
+        }
+        if (StringUtils.isBlank(row.getDescription())) {
+            return "Поле description не должно быть пустым";
+        }
+        if (row.getDescription().length() > MAX_TEXT_LENGTH) {
+            return "Описание не должно превышать 255 символов";
+        }
+        if (row.getAvailable() == null) {
+            return "Поле available не должно быть null";
+        }
+        return null;
+    }
+
+    private final class ImportRun {
+        private final Long ownerId;
+        private final List<Long> pendingRows = new ArrayList<>();
+        private final List<ItemImportRowDto> pending = new ArrayList<>();
+        private final List<ItemImportErrorDto> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long rejected;
+
+        private ImportRun(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        private void accept(long row, JsonNode node) {
+            ItemImportRowDto dto;
+            try {
+                dto = objectMapper.treeToValue(node, ItemImportRowDto.class);
+            } catch (JsonProcessingException e) {
+                reject(row, "Некорректные значения полей: " + e.getOriginalMessage());
+                return;
+            }
+            String error = validate(dto);
+            if (error != null) {
+                reject(row, error);
+                return;
+            }
+            pendingRows.add(row);
+            pending.add(dto);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(long row, String error) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ItemImportErrorDto(row, error));
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Set<Long> requestIds = pending.stream()
+                    .map(ItemImportRowDto::getRequestId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<Long> existingRequestIds = requestIds.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(requestRepository.findExistingIds(requestIds));
+            List<ItemImportRowDto> batch = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                Long requestId = pending.get(i).getRequestId();
+                if (requestId != null && !existingRequestIds.contains(requestId)) {
+                    reject(pendingRows.get(i), String.format("Запрос с id %s не найден.", requestId));
+                } else {
+                    batch.add(pending.get(i));
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+            if (!batch.isEmpty()) {
+                itemBatchWriter.write(ownerId, batch);
+                imported += batch.size();
+            }
+        }
+    }
+}
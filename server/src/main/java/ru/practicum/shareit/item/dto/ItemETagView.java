@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Вещь вместе с числом начавшихся подтверждённых бронирований: из одной строки собираются и ответ, и его ETag.
+ */
+public interface ItemETagView {
+    Item getItem();
+
+    Long getVersion();
+
+    Long getStartedApproved();
+}
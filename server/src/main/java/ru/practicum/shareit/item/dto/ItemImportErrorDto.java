@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Причина, по которой вещь из запроса пакетного импорта не была сохранена.
+ * Строки нумеруются с единицы в порядке следования в теле запроса.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportErrorDto {
+    private Long row;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Итог пакетного импорта вещей.
+ * В {@code errors} попадают только первые ошибки, общее число отклонённых строк содержится в {@code rejected}.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportResultDto {
+    private Long imported;
+    private Long rejected;
+    private List<ItemImportErrorDto> errors;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Одна вещь в теле запроса пакетного импорта.
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportRowDto {
+    private String name;
+    private String description;
+    private Boolean available;
+    private Long requestId;
+}
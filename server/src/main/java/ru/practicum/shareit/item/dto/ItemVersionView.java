@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Проекция вещи для проверки ETag: владелец и версия без загрузки связанных сущностей.
+ */
+public interface ItemVersionView {
+    Long getOwnerId();
+
+    Long getVersion();
+}
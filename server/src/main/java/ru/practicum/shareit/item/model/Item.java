@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -15,8 +17,22 @@ import javax.validation.constraints.Size;
 @Entity
 @Table(name = "items")
 public class Item {
+    /**
+     * Последовательность идентификаторов вещей. Одно обращение к ней резервирует {@link #ID_ALLOCATION_SIZE}
+     * идентификаторов, начиная с полученного значения (оптимизатор pooled-lo), поэтому Hibernate и пакетный импорт
+     * могут выделять идентификаторы из неё независимо друг от друга.
+     */
+    public static final String ID_SEQUENCE = "items_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @GenericGenerator(name = ID_SEQUENCE, strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = ID_SEQUENCE),
+                    @Parameter(name = "increment_size", value = "" + ID_ALLOCATION_SIZE),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long id;
 
     @NotBlank(message = "Имя не должно быть пустым")
@@ -32,12 +48,41 @@ public class Item {
     @Column(name = "available", nullable = false)
     private Boolean available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @ToString.Exclude
     private User owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest itemRequest;
+
+    /**
+     * Нормализованный текст для поиска: название и описание в нижнем регистре.
+     * На PostgreSQL по колонке построен триграммный индекс.
+     */
+    @Column(name = "search_text", nullable = false, length = 511)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String searchText;
+
+    /**
+     * Версия для ETag ответа GET /items/{itemId}. Увеличивается запросами репозиториев при изменении вещи и того,
+     * что показывается вместе с ней: комментариев и подтверждённых бронирований.
+     * Hibernate колонку не пишет, поэтому сохранение вещи, собранной из DTO, не сбрасывает версию.
+     */
+    @Column(name = "version", insertable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    private void updateSearchText() {
+        searchText = toSearchText(name, description);
+    }
+
+    public static String toSearchText(String name, String description) {
+        return (name + " " + description).toLowerCase();
+    }
 }
\ No newline at end of file
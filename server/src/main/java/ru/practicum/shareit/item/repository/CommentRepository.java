@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("SELECT c FROM Comment as c JOIN FETCH c.author WHERE c.item.id = ?1")
     List<Comment> findAllByItemId(Long itemId);
 
+    @Query("SELECT c FROM Comment as c JOIN FETCH c.author WHERE c.item.id IN ?1")
+    List<Comment> findAllByItemIdIn(List<Long> itemIds);
+
 }
\ No newline at end of file
@@ -1,13 +1,91 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemETagView;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
+import ru.practicum.shareit.util.NdjsonExporter;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
+    /**
+     * Вещи владельца с id больше afterId: следующая страница выбирается по индексу (owner_id, id) без OFFSET.
+     */
+    List<Item> findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long afterId, Pageable pageable);
+
+    @Query("SELECT i FROM Item as i " +
+            "WHERE i.available = true " +
+            "AND i.searchText LIKE ?1 ESCAPE '\\' " +
+            "AND i.id > ?2 " +
+            "ORDER BY i.id ASC")
+    List<Item> search(String pattern, Long afterId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.search.ItemSearchDocument(i.id, i.name, i.description, i.available) " +
+            "FROM Item as i " +
+            "WHERE i.available = true AND i.id > ?1 " +
+            "ORDER BY i.id ASC")
+    List<ItemSearchDocument> findSearchDocuments(Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT i FROM Item as i " +
+            "WHERE i.owner.id = ?1 " +
+            "ORDER BY i.id ASC")
+    Stream<Item> streamAllByOwnerId(Long ownerId);
+
+    /**
+     * Вещи, созданные в ответ на запросы, для всей страницы запросов одним запросом.
+     */
+    List<Item> findAllByItemRequestIdInOrderByIdAsc(Collection<Long> requestIds);
+
+    @Query("SELECT i.owner.id AS ownerId, i.version AS version FROM Item as i WHERE i.id = ?1")
+    Optional<ItemVersionView> findVersionById(Long itemId);
+
+    /**
+     * Версия выбирается отдельной колонкой: если вещь уже загружена в текущую сессию, Hibernate вернёт
+     * загруженный объект, а версию меняют запросы UPDATE в обход сессии.
+     */
+    @Query("SELECT i AS item, i.version AS version, " +
+            "(SELECT COUNT(b) FROM Booking as b " +
+            "WHERE b.item.id = i.id " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.start < ?2) AS startedApproved " +
+            "FROM Item as i WHERE i.id = ?1")
+    Optional<ItemETagView> findWithStartedApprovedById(Long itemId, LocalDateTime currentTime);
+
+    /**
+     * Блокирует строки вещей до конца транзакции в порядке id.
+     *
+     * @return id существующих вещей
+     */
+    @Query(value = "SELECT i.id FROM items as i WHERE i.id IN (?1) ORDER BY i.id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("UPDATE Item as i SET i.version = i.version + 1 WHERE i.id IN ?1")
+    int incrementVersions(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("UPDATE Item as i SET i.version = i.version + 1 " +
+            "WHERE i.id IN (SELECT b.item.id FROM Booking as b WHERE b.id IN ?1)")
+    int incrementBookedItemVersions(Collection<Long> bookingIds);
 
 }
\ No newline at end of file
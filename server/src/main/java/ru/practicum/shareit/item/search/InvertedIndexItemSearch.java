@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по инвертированному индексу в памяти.
+ * Название и описание доступных вещей разбиваются на слова в нижнем регистре, для каждого слова хранится
+ * отсортированный массив id вещей. Слово запроса совпадает со словами вещи, которые с него начинаются,
+ * вещь попадает в результат, если совпали все слова запроса.
+ * Индекс строится при старте и обновляется после фиксации транзакций, сохраняющих вещи.
+ * В базу данных выполняется только выборка вещей найденной страницы по первичному ключу.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "memory")
+public class InvertedIndexItemSearch implements ItemSearch {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<String, LongPostings> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long lastId = 0;
+        int count = 0;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemRepository.findSearchDocuments(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                batch.forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                count += batch.size();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(LongPostings::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска вещей загружен: {} вещей, {} слов.", count, postings.size());
+    }
+
+    @Override
+    public List<Item> search(String text, long afterId, Pageable pageable) {
+        long[] ids = findIds(text);
+        int first = Arrays.binarySearch(ids, afterId + 1);
+        if (first < 0) {
+            first = -first - 1;
+        }
+        int from = (int) Math.min(first + pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+        if (from == to) {
+            return new ArrayList<>();
+        }
+        List<Long> pageIds = Arrays.stream(ids, from, to)
+                .boxed()
+                .collect(Collectors.toList());
+        return itemRepository.findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void onSave(Item item, ItemSearchDocument previousDocument) {
+        ItemSearchDocument document = ItemSearchDocument.of(item);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (previousDocument != null) {
+                    remove(previousDocument);
+                }
+                add(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Возвращает отсортированные id доступных вещей, подходящих под текст.
+     *
+     * @param text текст поиска
+     * @return id найденных вещей
+     */
+    public long[] findIds(String text) {
+        Set<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (String token : tokens) {
+                long[] matches = findByPrefix(token);
+                result = result == null ? matches : LongPostings.intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptySet();
+        }
+        return SEPARATOR.splitAsStream(text.toLowerCase())
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private long[] findByPrefix(String prefix) {
+        return LongPostings.unionAll(postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+    }
+
+    private void add(ItemSearchDocument document) {
+        if (!Boolean.TRUE.equals(document.getAvailable())) {
+            return;
+        }
+        for (String token : documentTokens(document)) {
+            postings.computeIfAbsent(token, t -> new LongPostings()).add(document.getId());
+        }
+    }
+
+    private void remove(ItemSearchDocument document) {
+        for (String token : documentTokens(document)) {
+            LongPostings termPostings = postings.get(token);
+            if (termPostings != null && termPostings.remove(document.getId()) && termPostings.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private Set<String> documentTokens(ItemSearchDocument document) {
+        return tokenize(document.getName() + " " + document.getDescription());
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по тексту в названии и описании.
+ * Реализация выбирается свойством {@code shareit.item-search.mode}: {@code jpa} (по умолчанию) или {@code memory}.
+ */
+public interface ItemSearch {
+
+    /**
+     * Возвращает страницу доступных вещей, подходящих под текст, в порядке возрастания id.
+     *
+     * @param text     текст поиска
+     * @param afterId  страница начинается с вещей с id больше этого; 0 для первой страницы
+     * @param pageable параметры страницы
+     * @return найденные вещи
+     */
+    List<Item> search(String text, long afterId, Pageable pageable);
+
+    /**
+     * Вызывается после сохранения вещи.
+     *
+     * @param item             сохранённая вещь
+     * @param previousDocument название и описание вещи до изменения, null для новой вещи
+     */
+    default void onSave(Item item, ItemSearchDocument previousDocument) {
+    }
+}
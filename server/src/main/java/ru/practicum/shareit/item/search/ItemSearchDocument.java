@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Поля вещи, по которым выполняется поиск.
+ */
+@Data
+@AllArgsConstructor
+public class ItemSearchDocument {
+    private Long id;
+    private String name;
+    private String description;
+    private Boolean available;
+
+    public static ItemSearchDocument of(Item item) {
+        return new ItemSearchDocument(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Список id вещей одного термина: отсортированный массив примитивных long без дубликатов.
+ * Id новых вещей растут, поэтому добавление обычно сводится к записи в конец массива.
+ * Класс не потокобезопасен, синхронизация выполняется в {@link InvertedIndexItemSearch}.
+ */
+public class LongPostings {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    public void add(long id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            insertAt(-position - 1, id);
+            return;
+        }
+        ensureCapacity();
+        ids[size++] = id;
+    }
+
+    public boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    public void trimToSize() {
+        if (ids.length > size) {
+            ids = Arrays.copyOf(ids, Math.max(size, 1));
+        }
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Пересечение двух отсортированных массивов id.
+     */
+    public static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[k++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Объединение списков id нескольких терминов без дубликатов.
+     * Списки сливаются за один проход через кучу текущих минимумов: O(N log k) для k списков
+     * с N id в сумме вместо повторного попарного объединения.
+     */
+    public static long[] unionAll(Collection<LongPostings> postings) {
+        if (postings.isEmpty()) {
+            return new long[0];
+        }
+        if (postings.size() == 1) {
+            return postings.iterator().next().toArray();
+        }
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(postings.size(), Comparator.comparingLong(Cursor::head));
+        int total = 0;
+        for (LongPostings termPostings : postings) {
+            if (!termPostings.isEmpty()) {
+                heap.add(new Cursor(termPostings));
+                total += termPostings.size;
+            }
+        }
+        long[] result = new long[total];
+        int k = 0;
+        while (!heap.isEmpty()) {
+            Cursor cursor = heap.poll();
+            long id = cursor.head();
+            if (k == 0 || result[k - 1] != id) {
+                result[k++] = id;
+            }
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private void insertAt(int position, long id) {
+        ensureCapacity();
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+        }
+    }
+
+    private static final class Cursor {
+        private final long[] ids;
+        private final int size;
+        private int position;
+
+        private Cursor(LongPostings postings) {
+            this.ids = postings.ids;
+            this.size = postings.size;
+        }
+
+        private long head() {
+            return ids[position];
+        }
+
+        private boolean advance() {
+            return ++position < size;
+        }
+    }
+}
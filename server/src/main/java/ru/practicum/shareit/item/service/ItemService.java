@@ -1,9 +1,14 @@
 package ru.practicum.shareit.item.service;
 
 import org.hibernate.ObjectNotFoundException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.ETagged;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface ItemService {
@@ -14,10 +19,34 @@ public interface ItemService {
 
     ItemDto getItemById(Long userId, Long itemId) throws ObjectNotFoundException;
 
-    List<ItemDto> getAll(Long userId, Integer from, Integer size);
+    /**
+     * Возвращает ETag вещи без сборки DTO: версия вещи, а для владельца ещё и число начавшихся
+     * подтверждённых бронирований, от которого зависят последнее и следующее бронирование.
+     */
+    String getItemETag(Long userId, Long itemId);
 
-    List<ItemDto> search(Long userId, String text, Integer from, Integer size);
+    /**
+     * Возвращает вещь вместе с её ETag. Версия и число начавшихся бронирований читаются тем же запросом,
+     * что и вещь, поэтому ответ без If-None-Match не требует отдельного вызова {@link #getItemETag}.
+     */
+    ETagged<ItemDto> getItemWithETag(Long userId, Long itemId);
+
+    /**
+     * Возвращает страницу вещей владельца. Если передан курсор, страница начинается после вещи из курсора
+     * и from не учитывается.
+     */
+    CursorPage<ItemDto> getAll(Long userId, Integer from, Integer size, String cursor);
+
+    /**
+     * Проверяет владельца и возвращает выгрузку всех его вещей в формате NDJSON.
+     * Вещи выгружаются без бронирований и комментариев и читаются из базы во время записи ответа.
+     */
+    StreamingResponseBody exportAll(Long userId);
+
+    CursorPage<ItemDto> search(Long userId, String text, Integer from, Integer size, String cursor);
 
     CommentDto createComment(Long userId, CommentDto commentDto, Long itemId);
 
+    ItemImportResultDto importItems(Long userId, InputStream body);
+
 }
\ No newline at end of file
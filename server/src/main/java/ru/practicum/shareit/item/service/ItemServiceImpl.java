@@ -3,31 +3,46 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.bulk.ItemImporter;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemETagView;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.ETagged;
+import ru.practicum.shareit.util.NdjsonExporter;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -36,9 +51,14 @@ import java.util.stream.Collectors;
 @Service
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemSearch itemSearch;
+    private final ItemImporter itemImporter;
+    private final NdjsonExporter ndjsonExporter;
 
     @Override
     @Transactional
@@ -46,13 +66,20 @@ public class ItemServiceImpl implements ItemService {
         UserDto user = userService.getUserById(userId);
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(UserMapper.toUser(user));
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        if (itemDto.getRequestId() != null)
+            item.setItemRequest(requestRepository.findById(itemDto.getRequestId())
+                    .orElseThrow(() -> new NotFoundException(String.format("Запрос с id %s не найден.",
+                            itemDto.getRequestId()))));
+        Item savedItem = itemRepository.save(item);
+        itemSearch.onSave(savedItem, null);
+        incrementRequestVersion(savedItem);
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
     @Transactional
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto) {
-        UserDto user = userService.getUserById(userId);
+        userService.checkExists(userId);
         Optional<Item> itemOptional = itemRepository.findById(itemId);
 
         itemOptional.orElseThrow(() -> new NotFoundException(String.format("Предмет с id %s не найтен.", itemId)));
@@ -74,14 +101,19 @@ public class ItemServiceImpl implements ItemService {
         item.setItemRequest(itemFromStorage.getItemRequest());
         item.setOwner(itemFromStorage.getOwner());
 
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        ItemSearchDocument previousDocument = ItemSearchDocument.of(itemFromStorage);
+        Item savedItem = itemRepository.save(item);
+        itemSearch.onSave(savedItem, previousDocument);
+        itemRepository.incrementVersions(List.of(itemId));
+        incrementRequestVersion(savedItem);
+        return ItemMapper.toItemDto(savedItem);
     }
 
 
     @Override
     @Transactional(readOnly = true)
     public ItemDto getItemById(Long userId, Long itemId) {
-        userService.getUserById(userId);
+        userService.checkExists(userId);
         Optional<Item> itemGet = itemRepository.findById(itemId);
         if (itemGet.isEmpty()) {
             log.warn("У пользователя с id {} не существует предмета с id {}", userId, itemId);
@@ -94,26 +126,74 @@ public class ItemServiceImpl implements ItemService {
         itemDto.setComments(getAllComments(itemId));
         if (!item.getOwner().getId().equals(userId))
             return itemDto;
-        getLastNextBooking(itemDto);
+        setLastNextBookings(List.of(itemDto));
         return itemDto;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> getAll(Long userId, Integer from, Integer size) {
-        userService.getUserById(userId);
-        Pageable pageable = PageRequest.of(from / size, size);
+    public String getItemETag(Long userId, Long itemId) {
+        userService.checkExists(userId);
+        ItemVersionView item = itemRepository.findVersionById(itemId).orElseThrow(() -> {
+            log.warn("У пользователя с id {} не существует предмета с id {}", userId, itemId);
+            return new NotFoundException(String.format("У пользователя с id %s не " +
+                    "существует предмета с id %s", userId, itemId));
+        });
+        if (!item.getOwnerId().equals(userId))
+            return eTag(item.getVersion(), null);
+        return eTag(item.getVersion(), bookingRepository.countStartedApproved(itemId, LocalDateTime.now()));
+    }
 
-        Page<Item> itemPage = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, pageable);
-        List<Item> itemList = itemPage.getContent();
+    @Override
+    @Transactional(readOnly = true)
+    public ETagged<ItemDto> getItemWithETag(Long userId, Long itemId) {
+        userService.checkExists(userId);
+        ItemETagView view = itemRepository.findWithStartedApprovedById(itemId, LocalDateTime.now()).orElseThrow(() -> {
+            log.warn("У пользователя с id {} не существует предмета с id {}", userId, itemId);
+            return new NotFoundException(String.format("У пользователя с id %s не " +
+                    "существует предмета с id %s", userId, itemId));
+        });
+        Item item = view.getItem();
 
-        List<ItemDto> items = ItemMapper.mapToItemDto(itemList);
-        items.forEach(i -> {
-            getLastNextBooking(i);
-            i.setComments(getAllComments(i.getId()));
+        ItemDto itemDto = ItemMapper.toItemDto(item);
+        itemDto.setComments(getAllComments(itemId));
+        if (!item.getOwner().getId().equals(userId))
+            return new ETagged<>(eTag(view.getVersion(), null), itemDto);
+        setLastNextBookings(List.of(itemDto));
+        return new ETagged<>(eTag(view.getVersion(), view.getStartedApproved()), itemDto);
+    }
+
+    /**
+     * ETag вещи: версия, а для владельца ещё и число начавшихся подтверждённых бронирований.
+     */
+    private static String eTag(Long version, Long startedApproved) {
+        return startedApproved == null ? "v" + version : "v" + version + "-s" + startedApproved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> getAll(Long userId, Integer from, Integer size, String cursor) {
+        userService.checkExists(userId);
+        PageCursor after = PageCursor.decode(cursor, false);
+
+        List<Item> itemList = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(userId,
+                after == null ? 0L : after.getId(), OffsetPageRequest.ofOffset(after == null ? from : 0, size + 1));
+
+        return CursorPage.of(itemList, size, item -> PageCursor.of(item.getId()), page -> {
+            List<ItemDto> items = ItemMapper.mapToItemDto(page);
+            setLastNextBookingsAndComments(items);
+            return items;
         });
+    }
 
-        return items;
+    @Override
+    public StreamingResponseBody exportAll(Long userId) {
+        userService.checkExists(userId);
+        return out -> {
+            long count = ndjsonExporter.export(() -> itemRepository.streamAllByOwnerId(userId),
+                    ItemMapper::toItemDto, out);
+            log.info("Выгружено {} вещей пользователя с id: {}", count, userId);
+        };
     }
 
     @Transactional
@@ -127,17 +207,15 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> search(Long userId, String text, Integer from, Integer size) {
-        userService.getUserById(userId);
+    public CursorPage<ItemDto> search(Long userId, String text, Integer from, Integer size, String cursor) {
+        userService.checkExists(userId);
         if (StringUtils.isBlank(text))
-            return new ArrayList<>();
-
-        Pageable pageable = PageRequest.of(from / size, size);
-        return ItemMapper.mapToItemDto(itemRepository.findAll(pageable).getContent().stream()
-                .filter(Item::getAvailable)
-                .filter(item -> item.getName().toLowerCase().contains(text.toLowerCase())
-                        || item.getDescription().toLowerCase().contains(text.toLowerCase()))
-                .collect(Collectors.toList()));
+            return new CursorPage<>(new ArrayList<>(), null);
+
+        PageCursor after = PageCursor.decode(cursor, false);
+        List<Item> found = itemSearch.search(text, after == null ? 0L : after.getId(),
+                OffsetPageRequest.ofOffset(after == null ? from : 0, size + 1));
+        return CursorPage.of(found, size, item -> PageCursor.of(item.getId()), ItemMapper::mapToItemDto);
     }
 
     @Override
@@ -162,18 +240,88 @@ public class ItemServiceImpl implements ItemService {
                     "предмета с id %s.", userId, itemId));
         }
 
-        return CommentMapper.toCommentDto(commentRepository.save(CommentMapper.toComment(commentDto, item, user)));
+        Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, item, user));
+        itemRepository.incrementVersions(List.of(itemId));
+        return CommentMapper.toCommentDto(comment);
     }
 
-    @Transactional
-    private void getLastNextBooking(ItemDto itemDto) {
-        Optional<Booking> lastBooking = bookingRepository.getLastBooking(itemDto.getId(), LocalDateTime.now());
-        itemDto.setLastBooking(
-                lastBooking.map(BookingMapper::toBookingItemDto).orElse(null)
-        );
-        Optional<Booking> nextBooking = bookingRepository.getNextBooking(itemDto.getId(), LocalDateTime.now());
-        itemDto.setNextBooking(
-                nextBooking.map(BookingMapper::toBookingItemDto).orElse(null)
-        );
+    /**
+     * Без общей транзакции: каждая пачка строк фиксируется отдельно в {@link ItemImporter}.
+     */
+    @Override
+    public ItemImportResultDto importItems(Long userId, InputStream body) {
+        userService.checkExists(userId);
+        return itemImporter.importItems(userId, body);
+    }
+
+    /**
+     * Запрос отдаёт список ответивших на него вещей, поэтому его версия меняется вместе с ними.
+     */
+    private void incrementRequestVersion(Item item) {
+        if (item.getItemRequest() != null)
+            requestRepository.incrementVersions(List.of(item.getItemRequest().getId()));
+    }
+
+    /**
+     * Заполняет последнее и следующее бронирование и комментарии для всей страницы вещей.
+     * Число запросов не зависит от размера страницы: по одному на сводки бронирований и комментарии.
+     *
+     * @param items вещи одной страницы
+     */
+    private void setLastNextBookingsAndComments(List<ItemDto> items) {
+        if (items.isEmpty())
+            return;
+        setLastNextBookings(items);
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        items.forEach(i -> i.setComments(comments.getOrDefault(i.getId(), new ArrayList<>())));
+    }
+
+    /**
+     * Заполняет последнее и следующее бронирование из сводок бронирований вещей одним запросом по ключу.
+     * Для вещей, у которых следующее бронирование уже началось, а сводка ещё не пересчитана по расписанию,
+     * бронирования выбираются из таблицы бронирований.
+     *
+     * @param items вещи владельца
+     */
+    private void setLastNextBookings(List<ItemDto> items) {
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> staleIds = summaries.values().stream()
+                .filter(summary -> summary.isStale(now))
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+
+        Map<Long, BookingItemDto> lastBookings = new HashMap<>();
+        Map<Long, BookingItemDto> nextBookings = new HashMap<>();
+        if (!staleIds.isEmpty()) {
+            bookingRepository.findLastBookings(staleIds, now)
+                    .forEach(b -> lastBookings.put(b.getItemId(), BookingMapper.toBookingItemDto(b)));
+            bookingRepository.findNextBookings(staleIds, now)
+                    .forEach(b -> nextBookings.put(b.getItemId(), BookingMapper.toBookingItemDto(b)));
+        }
+
+        items.forEach(i -> {
+            ItemBookingSummary summary = summaries.get(i.getId());
+            if (summary == null) {
+                i.setLastBooking(null);
+                i.setNextBooking(null);
+            } else if (staleIds.contains(i.getId())) {
+                i.setLastBooking(lastBookings.get(i.getId()));
+                i.setNextBooking(nextBookings.get(i.getId()));
+            } else {
+                i.setLastBooking(BookingMapper.toLastBookingItemDto(summary));
+                i.setNextBooking(BookingMapper.toNextBookingItemDto(summary));
+            }
+        });
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.RequestService;
 
@@ -35,14 +36,22 @@ public class ItemRequestController {
     @GetMapping("/all")
     public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(XSHARERUSERID) Long userId,
                                                                @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                               @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return ResponseEntity.ok(requestService.getAllRequests(userId, from, size));
+                                                               @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                               @RequestParam(name = "cursor", required = false) String cursor) {
+        return requestService.getAllRequests(userId, from, size, cursor).toResponseEntity();
     }
 
+    /**
+     * Отдаёт запрос с ETag. На условный запрос с совпадающим If-None-Match отвечает 304, не собирая DTO.
+     */
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestDto> get(@RequestHeader(XSHARERUSERID) Long userId,
-                                              @PathVariable Long requestId) {
-        return ResponseEntity.ok(requestService.getRequestById(userId, requestId));
+                                              @PathVariable Long requestId,
+                                              WebRequest webRequest) {
+        String eTag = requestService.getRequestETag(userId, requestId);
+        if (webRequest.checkNotModified(eTag))
+            return null;
+        return ResponseEntity.ok().eTag(eTag).body(requestService.getRequestById(userId, requestId));
     }
 
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package ru.practicum.shareit.request.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -30,7 +32,7 @@ public class ItemRequest {
     @Column(name = "description", nullable = false, length = 255)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id",nullable = false, referencedColumnName = "id")
     private User requester;
 
@@ -40,4 +42,12 @@ public class ItemRequest {
 
     @OneToMany(mappedBy = "itemRequest", cascade = CascadeType.ALL)
     private List<Item> items = new ArrayList<>();
+
+    /**
+     * Версия для ETag ответа GET /requests/{requestId}: увеличивается при добавлении и изменении вещей по запросу.
+     */
+    @Column(name = "version", insertable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Long version;
 }
\ No newline at end of file
@@ -1,17 +1,60 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequesterId(Long userId);
+    /**
+     * Условие на внешний ключ r.requester.id, а не на присоединённую таблицу пользователей,
+     * как в выводимом из имени запросе: так выборка идёт по индексу (requester_id, created, id).
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requester.id = ?1 " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllByRequesterIdOrderByCreatedDescIdDesc(Long userId);
 
-    List<ItemRequest> findAllByRequester_IdNotOrderByCreatedDesc(Long userId, Pageable pageable);
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requester.id <> ?1 " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllByRequester_IdNotOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * Запросы других пользователей, созданные раньше позиции (created, id): следующая страница
+     * выбирается по индексу (created, id) без OFFSET. Условие created <= ?2 задаёт диапазон по индексу,
+     * которого нет в условии с OR.
+     */
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requester.id <> ?1 " +
+            "AND r.created <= ?2 AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findAllByRequesterIdNotBefore(Long userId, LocalDateTime created, Long id, Pageable pageable);
+
+    /**
+     * Запрос вместе с ответившими на него вещами одним запросом.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<ItemRequest> findWithItemsById(Long requestId);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("SELECT r.version FROM ItemRequest r WHERE r.id = ?1")
+    Optional<Long> findVersionById(Long requestId);
+
+    @Modifying
+    @Query("UPDATE ItemRequest r SET r.version = r.version + 1 WHERE r.id IN ?1")
+    int incrementVersions(Collection<Long> requestIds);
 
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.List;
 
@@ -10,7 +11,16 @@ public interface RequestService {
 
     List<ItemRequestDto> getUserRequests(Long userId);
 
-    List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size);
+    /**
+     * Возвращает страницу запросов других пользователей, от новых к старым. Если передан курсор,
+     * страница начинается после запроса из курсора и from не учитывается.
+     */
+    CursorPage<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size, String cursor);
 
     ItemRequestDto getRequestById(Long userId, Long requestId);
+
+    /**
+     * Возвращает ETag запроса, построенный по версии записи, без сборки DTO.
+     */
+    String getRequestETag(Long userId, Long requestId);
 }
\ No newline at end of file
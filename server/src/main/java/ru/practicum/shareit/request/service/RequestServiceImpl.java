@@ -2,10 +2,11 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.RequestMapping;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -13,10 +14,14 @@ import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
 import javax.persistence.EntityNotFoundException;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -28,6 +33,7 @@ public class RequestServiceImpl implements RequestService {
 
     private final UserService userService;
     private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
 
     @Override
     @Transactional
@@ -50,30 +56,29 @@ public class RequestServiceImpl implements RequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserRequests(Long userId) {
-        userService.getUserById(userId);
-        List<ItemRequest> itemRequestList = requestRepository.findAllByRequesterId(userId);
-        return itemRequestList.stream()
-                .sorted(Comparator.comparing(ItemRequest::getCreated).reversed())
-                .map(RequestMapping::toRequestDto)
-                .collect(Collectors.toList());
+        userService.checkExists(userId);
+        return toRequestDtos(requestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(userId));
     }
 
     @Override
     @Transactional
-    public List<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size) {
-        userService.getUserById(userId);
-        List<ItemRequest> itemRequestList = requestRepository.findAllByRequester_IdNotOrderByCreatedDesc(userId,
-                PageRequest.of(from / size, size));
-        return itemRequestList.stream()
-                .map(RequestMapping::toRequestDto)
-                .collect(Collectors.toList());
+    public CursorPage<ItemRequestDto> getAllRequests(Long userId, Integer from, Integer size, String cursor) {
+        userService.checkExists(userId);
+        PageCursor after = PageCursor.decode(cursor, true);
+        List<ItemRequest> itemRequestList = after == null
+                ? requestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(userId,
+                OffsetPageRequest.ofOffset(from, size + 1))
+                : requestRepository.findAllByRequesterIdNotBefore(userId, after.getKey(), after.getId(),
+                OffsetPageRequest.ofOffset(0, size + 1));
+        return CursorPage.of(itemRequestList, size, request -> PageCursor.of(request.getCreated(), request.getId()),
+                this::toRequestDtos);
     }
 
     @Override
     @Transactional
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
-        userService.getUserById(userId);
-        Optional<ItemRequest> requestById = requestRepository.findById(requestId);
+        userService.checkExists(userId);
+        Optional<ItemRequest> requestById = requestRepository.findWithItemsById(requestId);
 
         if (requestById.isEmpty()) {
             log.debug("Запрос с id {} не был найден.", requestId);
@@ -82,4 +87,33 @@ public class RequestServiceImpl implements RequestService {
         }
         return RequestMapping.toRequestDto(requestById.get());
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getRequestETag(Long userId, Long requestId) {
+        userService.checkExists(userId);
+        Long version = requestRepository.findVersionById(requestId).orElseThrow(() -> {
+            log.debug("Запрос с id {} не был найден.", requestId);
+            return new NotFoundException(String.format("Запрос с id: %d " +
+                    "не был найден.", requestId));
+        });
+        return "v" + version;
+    }
+
+    /**
+     * Собирает DTO запросов вместе с вещами, созданными в ответ на них. Вещи всех запросов загружаются
+     * одним запросом, поэтому число запросов не зависит от числа запросов в списке.
+     */
+    private List<ItemRequestDto> toRequestDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty())
+            return new ArrayList<>();
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByItemRequestIdInOrderByIdAsc(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId()));
+        return requests.stream()
+                .map(request -> RequestMapping.toRequestDto(request, items.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+}
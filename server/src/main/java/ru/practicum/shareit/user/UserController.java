@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -35,10 +36,16 @@ public class UserController {
         return ResponseEntity.ok(userService.getAll());
     }
 
+    /**
+     * Отдаёт пользователя с ETag. На условный запрос с совпадающим If-None-Match отвечает 304, не собирая DTO.
+     */
     @GetMapping("/{userId}")
-    public ResponseEntity<UserDto> get(@PathVariable Long userId) {
+    public ResponseEntity<UserDto> get(@PathVariable Long userId, WebRequest webRequest) {
         log.info("GET запрос на получение пользователя c id: {}", userId);
-        return ResponseEntity.ok(userService.getUserById(userId));
+        String eTag = userService.getUserETag(userId);
+        if (webRequest.checkNotModified(eTag))
+            return null;
+        return ResponseEntity.ok().eTag(eTag).body(userService.getUserById(userId));
     }
 
     @DeleteMapping("/{userId}")
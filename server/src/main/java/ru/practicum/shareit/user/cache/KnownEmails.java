@@ -0,0 +1,67 @@
+package ru.practicum.shareit.user.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserEmailView;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.List;
+
+/**
+ * Фильтр Блума по адресам электронной почты пользователей в нижнем регистре.
+ * Позволяет не обращаться к базе данных при проверке уникальности адреса, который точно никем не занят.
+ * До загрузки фильтра и для адресов, добавленных другими экземплярами сервера, окончательной проверкой
+ * остаётся уникальный индекс в базе данных.
+ */
+@Slf4j
+@Component
+public class KnownEmails {
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final BloomFilter filter;
+    private volatile boolean loaded;
+
+    public KnownEmails(UserRepository userRepository,
+                       @Value("${shareit.known-emails.expected-insertions:1000000}") long expectedInsertions,
+                       @Value("${shareit.known-emails.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long lastId = 0;
+        int count = 0;
+        List<UserEmailView> batch;
+        do {
+            batch = userRepository.findEmails(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            batch.forEach(user -> add(user.getEmail()));
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+                count += batch.size();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        loaded = true;
+        log.info("Фильтр адресов электронной почты загружен: {} адресов.", count);
+    }
+
+    public void add(String email) {
+        filter.put(email.toLowerCase());
+    }
+
+    /**
+     * Возвращает false, только если адрес точно не занят.
+     *
+     * @param email адрес электронной почты
+     * @return true, если адрес может быть занят
+     */
+    public boolean mightExist(String email) {
+        return !loaded || filter.mightContain(email.toLowerCase());
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру кэш пользователей между запросами.
+ * Вытеснение W-TinyLFU (Caffeine), записи дополнительно устаревают по времени,
+ * чтобы изменения, сделанные другим экземпляром сервера, не жили в кэше бесконечно.
+ * Счётчики кэша публикуются в метриках cache.* с тегом cache=shareit.users.
+ */
+@Component
+public class UserCache {
+    private final Cache<Long, UserDto> users;
+
+    public UserCache(@Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user-cache.expire-after-write:5m}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "shareit.users");
+    }
+
+    /**
+     * Возвращает пользователя из кэша или загружает его.
+     *
+     * @param userId id пользователя
+     * @param loader загрузка пользователя при промахе
+     * @return пользователь
+     */
+    public UserDto get(Long userId, Function<Long, UserDto> loader) {
+        return users.get(userId, loader);
+    }
+
+    public Optional<UserDto> getIfPresent(Long userId) {
+        return Optional.ofNullable(users.getIfPresent(userId));
+    }
+
+    /**
+     * Удаляет пользователя из кэша сразу и ещё раз после фиксации текущей транзакции,
+     * чтобы параллельный запрос не вернул в кэш старые данные до фиксации.
+     *
+     * @param userId id пользователя
+     */
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+        TransactionCallbacks.afterCommit(() -> users.invalidate(userId));
+    }
+
+    /**
+     * Счётчики попаданий, промахов и вытеснений.
+     */
+    public CacheStats stats() {
+        return users.stats();
+    }
+
+    public long size() {
+        return users.estimatedSize();
+    }
+}
@@ -3,7 +3,9 @@ package ru.practicum.shareit.user.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -26,4 +28,12 @@ public class User {
     @Column(name = "email", nullable = false, unique = true)
     @Email(message = "Email не корректен")
     private String email;
+
+    /**
+     * Версия для ETag ответа GET /users/{userId}, увеличивается {@code UserRepository.incrementVersion}.
+     */
+    @Column(name = "version", insertable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Long version;
 }
\ No newline at end of file
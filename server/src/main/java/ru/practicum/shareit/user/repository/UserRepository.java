@@ -1,10 +1,41 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.dto.UserEmailView;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-}
\ No newline at end of file
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User as u " +
+            "WHERE LOWER(u.email) = LOWER(?1) AND u.id <> ?2")
+    boolean isEmailTaken(String email, Long excludedUserId);
+
+    @Query("SELECT u.id AS id, u.email AS email FROM User as u " +
+            "WHERE u.id > ?1 " +
+            "ORDER BY u.id ASC")
+    List<UserEmailView> findEmails(Long afterId, Pageable pageable);
+
+    @Query("SELECT u.version FROM User as u WHERE u.id = ?1")
+    Optional<Long> findVersionById(Long userId);
+
+    @Modifying
+    @Query("UPDATE User as u SET u.version = u.version + 1 WHERE u.id = ?1")
+    int incrementVersion(Long userId);
+
+    /**
+     * Имя автора показывается в комментариях, поэтому при его изменении меняются и карточки прокомментированных вещей.
+     */
+    @Modifying
+    @Query("UPDATE Item as i SET i.version = i.version + 1 " +
+            "WHERE i.id IN (SELECT c.item.id FROM Comment as c WHERE c.author.id = ?1)")
+    int incrementCommentedItemVersions(Long userId);
+
+}
@@ -16,4 +16,17 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    /**
+     * Возвращает ETag пользователя, построенный по версии записи, без сборки DTO.
+     */
+    String getUserETag(Long userId);
+
+    /**
+     * Проверяет, что пользователь существует, не загружая его, если он не найден в кэше.
+     *
+     * @param userId id пользователя
+     * @throws ru.practicum.shareit.exceptions.NotFoundException если пользователя нет
+     */
+    void checkExists(Long userId);
+
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.cache.KnownEmails;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -22,19 +24,21 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final KnownEmails knownEmails;
 
     @Override
     public UserDto add(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
         validation(user);
         var userObject = userRepository.save(user);
+        knownEmails.add(userObject.getEmail());
         return UserMapper.toUserDto(userObject);
     }
 
     @Transactional
     @Override
     public UserDto update(Long userId, UserDto userDto) {
-        userNotExists(userId);
         User user = UserMapper.toUser(userDto);
         UserDto userFromStorage = getUserById(userId);
         if (Objects.isNull(user.getName())) user.setName(userFromStorage.getName());
@@ -43,11 +47,17 @@ public class UserServiceImpl implements UserService {
         } else {
             String email = user.getEmail();
             boolean isEmailNotChange = userFromStorage.getEmail().equals(email);
-            if (!isEmailNotChange) validEmail(user);
+            if (!isEmailNotChange) validEmail(userId, email);
         }
         user.setId(userId);
         validation(user);
-        return UserMapper.toUserDto(userRepository.save(user));
+        UserDto updatedUser = UserMapper.toUserDto(userRepository.save(user));
+        userRepository.incrementVersion(userId);
+        if (!userFromStorage.getName().equals(updatedUser.getName()))
+            userRepository.incrementCommentedItemVersions(userId);
+        knownEmails.add(updatedUser.getEmail());
+        userCache.invalidate(userId);
+        return updatedUser;
     }
 
     @Transactional
@@ -58,21 +68,36 @@ public class UserServiceImpl implements UserService {
 
     @Transactional
     public void delete(Long userId) {
-        userNotExists(userId);
+        userRepository.findById(userId).orElseThrow(() -> userNotFound(userId));
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
     }
 
-    @Transactional
+    /**
+     * Возвращает пользователя из кэша, при промахе загружает его одним запросом.
+     * Возвращается копия, чтобы изменения вызывающего кода не попали в кэш.
+     */
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
-        userNotExists(userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
+        UserDto user = userCache.get(userId, this::loadUser);
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
+    }
 
-        // Выполняем валидацию
-        validation(user);
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserETag(Long userId) {
+        return "v" + userRepository.findVersionById(userId).orElseThrow(() -> userNotFound(userId));
+    }
 
-        // Возвращаем DTO пользователя
-        return UserMapper.toUserDto(user);
+    @Override
+    @Transactional(readOnly = true)
+    public void checkExists(Long userId) {
+        if (userCache.getIfPresent(userId).isEmpty() && !userRepository.existsById(userId))
+            throw userNotFound(userId);
+    }
+
+    private UserDto loadUser(Long userId) {
+        return UserMapper.toUserDto(userRepository.findById(userId).orElseThrow(() -> userNotFound(userId)));
     }
 
     private void validation(User user) throws ValidationException {
@@ -97,21 +122,20 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    private void userNotExists(Long user) {
-        userRepository.findById(user).orElseThrow(() -> {
-            log.error("user service получает пользователя по ошибке: user с id {} не найден.", user);
-            return new NotFoundException(String.format("Пользователь с id: %s не найден!", user));
-        });
+    private NotFoundException userNotFound(Long user) {
+        log.error("user service получает пользователя по ошибке: user с id {} не найден.", user);
+        return new NotFoundException(String.format("Пользователь с id: %s не найден!", user));
     }
 
-    private void validEmail(User user) {
-        String email = user.getEmail();
-        List<User> userList = userRepository.findAll();
-        for (User user1 : userList)
-            if (user1.getEmail().contains(email)) {
-                log.error("user service получает email по ошибке: email {} уже существует.", email);
-                throw new ValidationException("Адрес электронной почты уже существует.");
-            }
+    /**
+     * Проверяет, что адрес не занят другим пользователем без учёта регистра.
+     * Адреса, которых точно нет в фильтре Блума, не проверяются запросом к базе данных.
+     */
+    private void validEmail(Long userId, String email) {
+        if (knownEmails.mightExist(email) && userRepository.isEmailTaken(email, userId)) {
+            log.error("user service получает email по ошибке: email {} уже существует.", email);
+            throw new ValidationException("Адрес электронной почты уже существует.");
+        }
     }
 
 }
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница списка и курсор следующей страницы.
+ * Курсор отдаётся клиенту в заголовке {@value #NEXT_CURSOR_HEADER}, тело ответа остаётся массивом,
+ * как при постраничном выводе через from и size.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> items;
+
+    /**
+     * Курсор следующей страницы; null, если страница последняя.
+     */
+    private final String nextCursor;
+
+    /**
+     * Собирает страницу из строк, выбранных с одной лишней строкой: по ней определяется, есть ли следующая страница.
+     *
+     * @param rows     не больше size + 1 строк
+     * @param size     размер страницы
+     * @param cursorOf позиция строки в списке
+     * @param mapper   преобразование строк страницы в DTO
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, PageCursor> cursorOf,
+                                          Function<List<E>, List<T>> mapper) {
+        boolean hasNext = rows.size() > size;
+        return of(hasNext ? rows.subList(0, size) : rows, hasNext, cursorOf, mapper);
+    }
+
+    public static <E, T> CursorPage<T> of(List<E> rows, boolean hasNext, Function<E, PageCursor> cursorOf,
+                                          Function<List<E>, List<T>> mapper) {
+        String nextCursor = hasNext && !rows.isEmpty() ? cursorOf.apply(rows.get(rows.size() - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(rows), nextCursor);
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Тело ответа и его ETag, полученные одним чтением.
+ */
+@Getter
+@AllArgsConstructor
+public class ETagged<T> {
+
+    private final String eTag;
+
+    private final T body;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Тайм-аут асинхронных запросов. Выгрузки NDJSON возвращают StreamingResponseBody, который пишется
+ * после выхода из контроллера, и без явного значения контейнер обрывает ответ через 30 секунд.
+ */
+@Configuration
+public class ExportAsyncConfig implements WebMvcConfigurer {
+    private final Duration asyncTimeout;
+
+    public ExportAsyncConfig(@Value("${shareit.export.async-timeout:30m}") Duration asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+    }
+}
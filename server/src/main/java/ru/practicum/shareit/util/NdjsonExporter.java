@@ -0,0 +1,71 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Запись сущностей в поток в формате NDJSON: по одному JSON-объекту на строку.
+ * Сущности читаются из базы курсором по мере записи и сразу отсоединяются от контекста персистентности,
+ * поэтому расход памяти не зависит от объёма выгрузки.
+ */
+@Component
+public class NdjsonExporter {
+
+    /**
+     * Число строк, которое драйвер JDBC получает из базы за одно обращение к курсору.
+     */
+    public static final String FETCH_SIZE = "500";
+
+    private static final int CLEAR_EVERY = 1000;
+
+    private final ObjectWriter writer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonExporter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Открывает поток сущностей в транзакции только для чтения и пишет каждую сущность в выходной поток.
+     *
+     * @param query  запрос, возвращающий поток сущностей
+     * @param mapper преобразование сущности в DTO
+     * @param out    выходной поток
+     * @return число записанных строк
+     */
+    @Transactional(readOnly = true)
+    public <T> long export(Supplier<Stream<T>> query, Function<T, ?> mapper, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<T> entities = query.get();
+             JsonGenerator generator = writer.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+                writer.writeValue(generator, mapper.apply(entity));
+                generator.writeRaw('\n');
+                entityManager.detach(entity);
+                if (++count % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+}
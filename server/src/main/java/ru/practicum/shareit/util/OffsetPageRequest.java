@@ -0,0 +1,37 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Страница, начинающаяся ровно с from-й строки. {@code PageRequest.of(from / size, size)} при from,
+ * не кратном size, начинает страницу с ближайшей меньшей кратной позиции.
+ */
+public class OffsetPageRequest extends PageRequest {
+
+    private final long offset;
+
+    protected OffsetPageRequest(long offset, int size) {
+        super((int) (offset / size), size, Sort.unsorted());
+        this.offset = offset;
+    }
+
+    public static OffsetPageRequest ofOffset(long offset, int size) {
+        return new OffsetPageRequest(offset, size);
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && obj instanceof OffsetPageRequest && ((OffsetPageRequest) obj).offset == offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Long.hashCode(offset);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.util;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке, после которой начинается следующая страница: ключ сортировки последней строки страницы
+ * и её id, различающий строки с одинаковым ключом. Следующая страница выбирается условием по индексу
+ * (seek), а не пропуском OFFSET строк, поэтому её получение не замедляется с глубиной.
+ * Клиенту отдаётся непрозрачной строкой.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class PageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Ключ сортировки; null для списков, отсортированных только по id.
+     */
+    private final LocalDateTime key;
+    private final long id;
+
+    private PageCursor(LocalDateTime key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime key, long id) {
+        return new PageCursor(key, id);
+    }
+
+    public static PageCursor of(long id) {
+        return new PageCursor(null, id);
+    }
+
+    public String encode() {
+        String value = key == null ? String.valueOf(id) : key.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбирает курсор, полученный клиентом вместе с предыдущей страницей.
+     *
+     * @param token   курсор или null для первой страницы
+     * @param withKey должен ли курсор содержать ключ сортировки
+     * @return позиция или null, если курсор не передан
+     * @throws ValidationException если курсор не удалось разобрать
+     */
+    public static PageCursor decode(String token, boolean withKey) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (withKey != (separator >= 0)) {
+                throw new IllegalArgumentException(value);
+            }
+            if (!withKey) {
+                return of(Long.parseLong(value));
+            }
+            return of(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException(String.format("Некорректный курсор страницы: %s", token));
+        }
+    }
+}
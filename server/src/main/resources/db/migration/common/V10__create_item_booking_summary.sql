@@ -0,0 +1,32 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id BIGINT PRIMARY KEY,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start_date TIMESTAMP WITHOUT TIME ZONE,
+    last_end_date TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start_date TIMESTAMP WITHOUT TIME ZONE,
+    next_end_date TIMESTAMP WITHOUT TIME ZONE,
+    FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_next_start_date_idx ON item_booking_summary (next_start_date);
+
+INSERT INTO item_booking_summary (item_id,
+                                  last_booking_id, last_booker_id, last_start_date, last_end_date,
+                                  next_booking_id, next_booker_id, next_start_date, next_end_date)
+SELECT i.id,
+       l.id, l.booker_id, l.start_date, l.end_date,
+       n.id, n.booker_id, n.start_date, n.end_date
+FROM items as i
+LEFT JOIN (SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date,
+                  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC) AS rn
+           FROM bookings as b
+           WHERE b.status = 'APPROVED' AND b.start_date < LOCALTIMESTAMP) as l ON l.item_id = i.id AND l.rn = 1
+LEFT JOIN (SELECT b.id, b.item_id, b.booker_id, b.start_date, b.end_date,
+                  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC) AS rn
+           FROM bookings as b
+           WHERE b.status = 'APPROVED' AND b.start_date > LOCALTIMESTAMP) as n ON n.item_id = i.id AND n.rn = 1
+WHERE l.id IS NOT NULL OR n.id IS NOT NULL;
@@ -0,0 +1,2 @@
+DROP INDEX IF EXISTS requests_requester_id_created_idx;
+CREATE INDEX IF NOT EXISTS requests_requester_id_created_id_idx ON requests (requester_id, created DESC, id DESC);
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -28,6 +22,7 @@ CREATE TABLE IF NOT EXISTS items
     available BOOLEAN NOT NULL DEFAULT TRUE,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    search_text VARCHAR(511) NOT NULL,
     FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE CASCADE,
     FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
     );
@@ -0,0 +1,3 @@
+DROP INDEX IF EXISTS bookings_booker_id_start_date_idx;
+CREATE INDEX IF NOT EXISTS bookings_booker_id_start_date_id_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS requests_created_id_idx ON requests (created DESC, id DESC);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id, id);
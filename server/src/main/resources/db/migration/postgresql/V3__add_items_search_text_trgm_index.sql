@@ -0,0 +1,3 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_search_text_trgm_idx ON items USING gin (search_text gin_trgm_ops) WHERE available;
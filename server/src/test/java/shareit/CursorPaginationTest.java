@@ -0,0 +1,149 @@
+package shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.util.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Обход списков по курсору из заголовка {@value CursorPage#NEXT_CURSOR_HEADER}: страницы должны идти
+ * без пропусков и повторов, в том числе когда у нескольких строк одинаковый ключ сортировки.
+ */
+@Transactional
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureMockMvc
+class CursorPaginationTest {
+    private static final String USER_HEADER = "X-SHARE-USER-Id";
+    private static final long OWNER = 401L;
+    private static final long BOOKER = 402L;
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void init() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime first = now.plusDays(1);
+        LocalDateTime second = now.plusDays(2);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES " +
+                "(401, 'owner', 'cursor-owner@email.com'), (402, 'booker', 'cursor-booker@email.com'), " +
+                "(403, 'requester', 'cursor-requester@email.com')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, search_text) VALUES " +
+                "(401, 'Дрель', 'Сетевая', true, 401, 'дрель сетевая'), " +
+                "(402, 'Пила', 'Ручная', true, 401, 'пила ручная'), " +
+                "(403, 'Молоток', 'Слесарный', true, 401, 'молоток слесарный'), " +
+                "(404, 'Рубанок', 'Ручной', true, 401, 'рубанок ручной'), " +
+                "(405, 'Стамеска', 'Плоская', true, 401, 'стамеска плоская')");
+        // у бронирований 401–403 и 404–405 одинаковое начало: страницы должны различать их по id
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) VALUES " +
+                        "(401, ?, ?, 401, 402, 'WAITING'), (402, ?, ?, 402, 402, 'WAITING'), " +
+                        "(403, ?, ?, 403, 402, 'APPROVED'), (404, ?, ?, 404, 402, 'WAITING'), " +
+                        "(405, ?, ?, 405, 402, 'REJECTED')",
+                first, first.plusHours(1), first, first.plusHours(1), first, first.plusHours(1),
+                second, second.plusHours(1), second, second.plusHours(1));
+        // у запросов 401–403 одинаковое время создания
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, created) VALUES " +
+                        "(401, 'Нужна дрель', 403, ?), (402, 'Нужна пила', 403, ?), (403, 'Нужен молоток', 403, ?), " +
+                        "(404, 'Нужен рубанок', 403, ?), (405, 'Нужна стамеска', 403, ?)",
+                now.minusDays(1), now.minusDays(1), now.minusDays(1), now, now.minusDays(2));
+    }
+
+    @Test
+    @DisplayName("Тестирование обхода бронирований по курсору при одинаковом начале")
+    void getBookings_whenStartsEqual_thenCursorPagesHaveNoGapsOrDuplicates() throws Exception {
+        assertEquals(List.of(405L, 404L, 403L, 402L, 401L), walk("/bookings", BOOKER));
+        assertEquals(List.of(405L, 404L, 403L, 402L, 401L), walk("/bookings/owner", OWNER));
+    }
+
+    @Test
+    @DisplayName("Тестирование обхода запросов других пользователей по курсору при одинаковом времени создания")
+    void getAllRequests_whenCreatedEqual_thenCursorPagesHaveNoGapsOrDuplicates() throws Exception {
+        assertEquals(List.of(404L, 403L, 402L, 401L, 405L), walk("/requests/all", OWNER));
+    }
+
+    @Test
+    @DisplayName("Тестирование обхода вещей владельца по курсору")
+    void getItems_thenCursorPagesHaveNoGapsOrDuplicates() throws Exception {
+        assertEquals(List.of(401L, 402L, 403L, 404L, 405L), walk("/items", OWNER));
+    }
+
+    @Test
+    @DisplayName("Тестирование того, что с курсором from не учитывается")
+    void getBookings_whenCursorGiven_thenIgnoreFrom() throws Exception {
+        MockHttpServletResponse firstPage = page("/bookings", BOOKER, null, 0);
+        String cursor = firstPage.getHeader(CursorPage.NEXT_CURSOR_HEADER);
+
+        assertEquals(List.of(405L, 404L), ids(firstPage));
+        assertEquals(List.of(403L, 402L), ids(page("/bookings", BOOKER, cursor, 0)));
+        assertEquals(List.of(403L, 402L), ids(page("/bookings", BOOKER, cursor, 3)));
+        assertEquals(List.of(402L, 401L), ids(page("/bookings", BOOKER, null, 3)));
+    }
+
+    /**
+     * Проходит все страницы по курсорам и возвращает id строк в порядке получения.
+     */
+    private List<Long> walk(String path, long userId) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletResponse response = page(path, userId, cursor, 0);
+            List<Long> pageIds = ids(response);
+            assertTrue(pageIds.size() <= PAGE_SIZE);
+            ids.addAll(pageIds);
+            cursor = response.getHeader(CursorPage.NEXT_CURSOR_HEADER);
+        } while (cursor != null && ids.size() <= 10);
+        assertNull(cursor);
+        return ids;
+    }
+
+    private MockHttpServletResponse page(String path, long userId, String cursor, int from) throws Exception {
+        var request = get(path)
+                .header(USER_HEADER, userId)
+                .param("from", String.valueOf(from))
+                .param("size", String.valueOf(PAGE_SIZE));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
+    private List<Long> ids(MockHttpServletResponse response) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode row : objectMapper.readTree(response.getContentAsString(StandardCharsets.UTF_8))) {
+            ids.add(row.get("id").asLong());
+        }
+        return ids;
+    }
+}
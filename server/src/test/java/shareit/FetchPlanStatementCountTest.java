@@ -0,0 +1,180 @@
+package shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет число SQL-запросов, которые Hibernate выполняет на каждый эндпоинт чтения, включая ленивые загрузки
+ * при сериализации ответа. Данных больше одной строки на связь, поэтому N+1 увеличивает число запросов
+ * и тест падает.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "shareit.booking-summary.roll-forward-interval=PT24H"})
+@AutoConfigureMockMvc
+class FetchPlanStatementCountTest {
+    private static final String USER_HEADER = "X-SHARE-USER-Id";
+    private static final long OWNER = 1L;
+    private static final long BOOKER = 2L;
+    private static final long REQUESTER = 3L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemBookingSummaryUpdater summaryUpdater;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES " +
+                "(1, 'owner', 'owner@email.com'), (2, 'booker', 'booker@email.com'), " +
+                "(3, 'requester', 'requester@email.com')");
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, created) VALUES " +
+                "(1, 'Нужна дрель', 3, ?), (2, 'Нужна пила', 3, ?)", now.minusDays(2), now.minusDays(1));
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, request_id, search_text) " +
+                "VALUES (1, 'Дрель', 'Сетевая', true, 1, 1, 'дрель сетевая'), " +
+                "(2, 'Пила', 'Ручная', true, 1, 2, 'пила ручная'), " +
+                "(3, 'Дрель', 'Аккумуляторная', true, 1, 1, 'дрель аккумуляторная')");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) VALUES " +
+                "(1, ?, ?, 1, 2, 'APPROVED'), (2, ?, ?, 1, 3, 'APPROVED'), (3, ?, ?, 2, 2, 'WAITING'), " +
+                "(4, ?, ?, 3, 3, 'APPROVED')",
+                now.minusDays(3), now.minusDays(2), now.plusDays(1), now.plusDays(2),
+                now.plusDays(3), now.plusDays(4), now.minusDays(5), now.minusDays(4));
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) VALUES " +
+                "(1, 'Отличная дрель', 1, 2, ?), (2, 'Шумная', 1, 3, ?), (3, 'Лёгкая', 3, 3, ?)",
+                now.minusDays(2), now.minusDays(1), now.minusDays(1));
+        summaryUpdater.refresh(List.of(1L, 2L, 3L), now);
+    }
+
+    @AfterEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM item_booking_summary");
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM requests");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при получении бронирования")
+    void getBooking() throws Exception {
+        assertEquals(1, statements(get("/bookings/1").header(USER_HEADER, BOOKER)));
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при подтверждении бронирования")
+    void approveBooking() throws Exception {
+        // обновление статуса, версии вещи, перечитывание бронирования; пересчёт сводки: блокировка вещи,
+        // последнее и следующее бронирование, чтение сводки, проверка и вставка новой сводки
+        assertEquals(9, statements(patch("/bookings/3").param("approved", "true").header(USER_HEADER, OWNER)));
+        mockMvc.perform(get("/items/2").header(USER_HEADER, OWNER))
+                .andExpect(jsonPath("$.nextBooking.id").value(3));
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при получении бронирований автора и владельца")
+    void getBookings() throws Exception {
+        long byBooker = statements(get("/bookings").header(USER_HEADER, BOOKER));
+        long byOwner = statements(get("/bookings/owner").header(USER_HEADER, OWNER));
+        assertAll(
+                () -> assertEquals(2, byBooker),
+                () -> assertEquals(2, byOwner));
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при получении вещи владельцем и другим пользователем")
+    void getItem() throws Exception {
+        long byOwner = statements(get("/items/1").header(USER_HEADER, OWNER));
+        long byBooker = statements(get("/items/1").header(USER_HEADER, BOOKER));
+        // пользователь, вещь с версией и числом начавшихся бронирований, комментарии с авторами
+        // и для владельца сводка бронирований: ETag собирается из той же строки, что и ответ
+        assertAll(
+                () -> assertEquals(4, byOwner),
+                () -> assertEquals(3, byBooker));
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при условном получении неизменённой вещи")
+    void getItemNotModified() throws Exception {
+        String eTag = mockMvc.perform(get("/items/1").header(USER_HEADER, OWNER))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        long notModified = statements(get("/items/1").header(USER_HEADER, OWNER)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag), status().isNotModified());
+        // пользователь, версия вещи и число начавшихся бронирований; вещь не загружается
+        assertEquals(3, notModified);
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при получении вещей владельца и поиске")
+    void getItems() throws Exception {
+        long ownerItems = statements(get("/items").header(USER_HEADER, OWNER));
+        long search = statements(get("/items/search").param("text", "дрель").header(USER_HEADER, BOOKER));
+        assertAll(
+                () -> assertEquals(4, ownerItems),
+                () -> assertEquals(2, search));
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при получении запроса вещи")
+    void getRequest() throws Exception {
+        assertEquals(4, statements(get("/requests/1").header(USER_HEADER, REQUESTER)));
+    }
+
+    @Test
+    @DisplayName("Тестирование числа запросов при получении списков запросов вещей")
+    void getRequests() throws Exception {
+        long own = statements(get("/requests").header(USER_HEADER, REQUESTER));
+        long all = statements(get("/requests/all").header(USER_HEADER, OWNER));
+        assertAll(
+                () -> assertEquals(3, own),
+                () -> assertEquals(3, all));
+    }
+
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        return statements(request, status().isOk());
+    }
+
+    private long statements(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(expectedStatus);
+        return statistics.getPrepareStatementCount();
+    }
+}
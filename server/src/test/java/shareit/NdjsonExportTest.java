@@ -0,0 +1,107 @@
+package shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.ShareItServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Выгрузки NDJSON пишутся асинхронно в отдельном потоке, поэтому данные сохраняются без транзакции теста
+ * и удаляются после каждого теста.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = "shareit.export.async-timeout=45m")
+@AutoConfigureMockMvc
+class NdjsonExportTest {
+    private static final String USER_HEADER = "X-SHARE-USER-Id";
+    private static final long OWNER = 301L;
+    private static final long BOOKER = 302L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES " +
+                "(301, 'owner', 'export-owner@email.com'), (302, 'booker', 'export-booker@email.com')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, search_text) VALUES " +
+                "(301, 'Дрель', 'Сетевая', true, 301, 'дрель сетевая'), " +
+                "(302, 'Пила', 'Ручная', true, 302, 'пила ручная'), " +
+                "(303, 'Молоток', 'Слесарный', true, 301, 'молоток слесарный')");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) VALUES " +
+                "(301, ?, ?, 301, 302, 'APPROVED'), (302, ?, ?, 303, 302, 'WAITING')",
+                now.plusDays(1), now.plusDays(2), now.plusDays(3), now.plusDays(4));
+    }
+
+    @AfterEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE id IN (301, 302)");
+        jdbcTemplate.update("DELETE FROM items WHERE id IN (301, 302, 303)");
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (301, 302)");
+    }
+
+    @Test
+    @DisplayName("Тестирование выгрузки вещей пользователя в NDJSON")
+    void exportItems_thenWriteItemPerLine() throws Exception {
+        String[] lines = export("/items/export", OWNER);
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":301,"), lines[0]);
+        assertTrue(lines[1].startsWith("{\"id\":303,"), lines[1]);
+    }
+
+    @Test
+    @DisplayName("Тестирование выгрузки бронирований владельца в NDJSON")
+    void exportOwnerBookings_thenWriteBookingPerLine() throws Exception {
+        String[] lines = export("/bookings/owner/export", OWNER);
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":301,"), lines[0]);
+        assertTrue(lines[1].startsWith("{\"id\":302,"), lines[1]);
+    }
+
+    @Test
+    @DisplayName("Тестирование выгрузки вещей несуществующего пользователя")
+    void exportItems_whenUserNotFound_thenReturnNotFound() throws Exception {
+        mockMvc.perform(get("/items/export").header(USER_HEADER, 100L))
+                .andExpect(status().isNotFound());
+    }
+
+    private String[] export(String path, long userId) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header(USER_HEADER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(45).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8)
+                .split("\n");
+    }
+}
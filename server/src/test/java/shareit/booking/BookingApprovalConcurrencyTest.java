@@ -0,0 +1,103 @@
+package shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class BookingApprovalConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clean() {
+        // потоки фиксируют свои транзакции, а база в памяти переживает контекст и видна другим тестам
+        jdbcTemplate.update("DELETE FROM item_booking_summary");
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование параллельного подтверждения одного бронирования")
+    void update_whenManyThreadsApproveSameBooking_thenOnlyOneSucceeds() throws Exception {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@email.com").build());
+        UserDto booker = userService.add(UserDto.builder().name("booker").email("booker@email.com").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .build());
+        BookingDtoOut booking = bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approve = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    BookingDtoOut updated = bookingService.update(owner.getId(), booking.getId(), approve);
+                    if (updated.getStatus() == BookingStatus.APPROVED) {
+                        approved.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                } catch (ValidationException e) {
+                    // статус уже изменил другой поток
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, approved.get() + rejected.get());
+        BookingStatus expected = approved.get() == 1 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        assertEquals(expected, bookingService.getBookingById(owner.getId(), booking.getId()).getStatus());
+    }
+}
@@ -0,0 +1,117 @@
+package shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureMockMvc
+class BookingBatchDecisionTest {
+    private static final String USER_HEADER = "X-SHARE-USER-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private UserDto owner;
+    private BookingDtoOut booking1;
+    private BookingDtoOut booking2;
+
+    @BeforeEach
+    void init() {
+        owner = userService.add(UserDto.builder().name("owner").email("owner@email.com").build());
+        UserDto booker = userService.add(UserDto.builder().name("booker").email("booker@email.com").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .build());
+        booking1 = bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusHours(1L))
+                .end(LocalDateTime.now().plusHours(2L))
+                .build());
+        booking2 = bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusHours(3L))
+                .end(LocalDateTime.now().plusHours(4L))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование пакетного одобрения и отклонения бронирований")
+    void updateAll_thenApplyDecisionsAndReportErrors() {
+        List<BookingDecisionResultDto> results = bookingService.updateAll(owner.getId(), List.of(
+                new BookingDecisionDto(booking1.getId(), true),
+                new BookingDecisionDto(booking2.getId(), false),
+                new BookingDecisionDto(booking1.getId(), false),
+                new BookingDecisionDto(Long.MAX_VALUE, true)));
+
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getStatus());
+        assertNull(results.get(2).getStatus());
+        assertEquals(String.format("Бронь c id %s уже изменил статус", booking1.getId()), results.get(2).getError());
+        assertEquals(String.format("Бронь с id %s не найдена.", Long.MAX_VALUE), results.get(3).getError());
+        assertEquals(BookingStatus.APPROVED, bookingService.getBookingById(owner.getId(), booking1.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingService.getBookingById(owner.getId(), booking2.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Тестирование пакетного решения без approved")
+    void updateStatuses_whenApprovedMissing_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\": " + booking1.getId() + ", \"approved\": true}, " +
+                                "{\"bookingId\": " + booking2.getId() + "}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Решение 1 должно содержать bookingId и approved."));
+
+        assertEquals(BookingStatus.WAITING, bookingService.getBookingById(owner.getId(), booking1.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Тестирование пакетного решения без id бронирования")
+    void updateStatuses_whenBookingIdMissing_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"approved\": false}]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -16,6 +17,7 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.CursorPage;
 
 
 import java.time.LocalDateTime;
@@ -62,8 +64,8 @@ class BookingControllerTest {
             .start(LocalDateTime.now())
             .end(LocalDateTime.now())
             .status(BookingStatus.WAITING)
-            .booker(user)
-            .item(item)
+            .booker(BookingMapper.toBookerDto(user))
+            .item(BookingMapper.toBookedItemDto(item))
             .build();
 
     @Test
@@ -149,8 +151,8 @@ class BookingControllerTest {
         Integer size = 10;
         String state = "ALL";
 
-        when(bookingService.getAll(user.getId(), BookingState.ALL.toString(), 0, 10))
-                .thenReturn(List.of(bookingDtoOut));
+        when(bookingService.getAll(user.getId(), BookingState.ALL.toString(), 0, 10, null))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoOut), null));
 
         String result = mockMvc.perform(get("/bookings")
                         .param("state", state)
@@ -173,8 +175,8 @@ class BookingControllerTest {
         Integer size = 10;
         String state = "ERROR";
 
-        when(bookingService.getAll(user.getId(), BookingState.ALL.toString(), 0, 10))
-                .thenReturn(List.of(bookingDtoOut));
+        when(bookingService.getAll(user.getId(), BookingState.ALL.toString(), 0, 10, null))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoOut), null));
 
         mockMvc.perform(get("/bookings")
                         .param("state", state)
@@ -192,8 +194,8 @@ class BookingControllerTest {
         Integer size = 10;
         String state = "ALL";
 
-        when(bookingService.getAllOwner(user.getId(), BookingState.ALL.toString(), 0, 10))
-                .thenReturn(List.of(bookingDtoOut));
+        when(bookingService.getAllOwner(user.getId(), BookingState.ALL.toString(), 0, 10, null))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoOut), null));
 
         String result = mockMvc.perform(get("/bookings/owner")
                         .param("state", state)
@@ -216,8 +218,8 @@ class BookingControllerTest {
         Integer size = 10;
         String state = "ERROR";
 
-        when(bookingService.getAllOwner(user.getId(), BookingState.ALL.toString(), 0, 10))
-                .thenReturn(List.of(bookingDtoOut));
+        when(bookingService.getAllOwner(user.getId(), BookingState.ALL.toString(), 0, 10, null))
+                .thenReturn(new CursorPage<>(List.of(bookingDtoOut), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .param("state", state)
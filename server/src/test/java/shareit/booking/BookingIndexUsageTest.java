@@ -0,0 +1,272 @@
+package shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.util.PageCursor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что миграции создают вторичные индексы, а запросы, которые генерируют репозитории
+ * бронирований, комментариев и запросов вещей, выполняются на H2 по этим индексам.
+ * SQL и значения параметров перехватываются на уровне JDBC, после чего тот же запрос
+ * выполняется с EXPLAIN и в плане проверяется имя индекса.
+ * H2 сам индексирует внешние ключи и при равной стоимости выбирает такой индекс вместо индекса миграции
+ * с тем же первым столбцом, поэтому для owner_id, booker_id, requester_id и item_id комментариев проверяется первый столбец
+ * индекса. В PostgreSQL внешние ключи не индексируются, и единственным подходящим остаётся индекс миграции.
+ */
+@DataJpaTest
+@ContextConfiguration(classes = ShareItServer.class)
+@Import(BookingIndexUsageTest.StatementCaptureConfig.class)
+class BookingIndexUsageTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT x, 'user' || x, 'user' || x || '@email.com' FROM SYSTEM_RANGE(1, 50)");
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, created) " +
+                "SELECT x, 'request' || x, MOD(x, 50) + 1, DATEADD('HOUR', -x, CAST(? AS TIMESTAMP)) FROM SYSTEM_RANGE(1, 500)", NOW);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, search_text) " +
+                "SELECT x, 'item' || x, 'description', true, MOD(x, 50) + 1, 'item' FROM SYSTEM_RANGE(1, 500)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "SELECT x, DATEADD('HOUR', x - 2500, CAST(? AS TIMESTAMP)), " +
+                "DATEADD('HOUR', x - 2499, CAST(? AS TIMESTAMP)), MOD(x, 500) + 1, " +
+                "MOD(x, 50) + 1, CASE MOD(x, 3) WHEN 0 THEN 'WAITING' ELSE 'APPROVED' END " +
+                "FROM SYSTEM_RANGE(1, 5000)", NOW, NOW);
+        jdbcTemplate.update("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                "SELECT x, 'comment', MOD(x, 500) + 1, MOD(x, 50) + 1, ? FROM SYSTEM_RANGE(1, 2000)", NOW);
+        statementCapture.clear();
+    }
+
+    @Test
+    @DisplayName("Тестирование создания вторичных индексов миграциями")
+    void migrations_thenCreateSecondaryIndexes() {
+        List<?> indexes = testEntityManager.getEntityManager()
+                .createNativeQuery("SELECT LOWER(index_name) FROM information_schema.indexes")
+                .getResultList();
+
+        assertTrue(indexes.containsAll(List.of(
+                "bookings_booker_id_start_date_id_idx",
+                "bookings_item_id_status_start_date_idx",
+                "items_owner_id_idx",
+                "comments_item_id_idx",
+                "requests_requester_id_created_id_idx",
+                "requests_created_id_idx")), indexes.toString());
+    }
+
+    @Test
+    @DisplayName("Тестирование использования индекса в бронированиях автора")
+    void bookerBookings_thenUseIndex() {
+        bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.FUTURE, NOW, null,
+                PageRequest.of(0, 10));
+
+        assertPlanUsesIndexOn("BOOKINGS", "BOOKER_ID");
+    }
+
+    @Test
+    @DisplayName("Тестирование использования индекса при выборке страницы бронирований автора по курсору")
+    void bookerBookingsAfterCursor_thenUseIndex() {
+        bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.ALL, NOW, PageCursor.of(NOW, 10L),
+                PageRequest.of(0, 10));
+
+        assertPlanUsesIndex("BOOKINGS_BOOKER_ID_START_DATE_ID_IDX");
+    }
+
+    @Test
+    @DisplayName("Тестирование использования индексов в бронированиях владельца")
+    void ownerBookings_thenUseIndexes() {
+        bookingRepository.findAllByState(BookingRole.OWNER, 1L, BookingState.ALL, NOW, null, PageRequest.of(0, 10));
+
+        assertPlanUsesIndexOn("ITEMS", "OWNER_ID");
+    }
+
+    @Test
+    @DisplayName("Тестирование использования индекса в последнем и следующем бронировании")
+    void lastAndNextBookings_thenUseIndex() {
+        bookingRepository.findLastBookings(List.of(1L, 2L, 3L), NOW);
+        assertPlanUsesIndex("BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX");
+
+        statementCapture.clear();
+        bookingRepository.findNextBookings(List.of(1L, 2L, 3L), NOW);
+        assertPlanUsesIndex("BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX");
+    }
+
+    @Test
+    @DisplayName("Тестирование использования индексов комментариев и запросов")
+    void commentsAndRequests_thenUseIndexes() {
+        commentRepository.findAllByItemIdIn(List.of(1L, 2L, 3L));
+        assertPlanUsesIndexOn("COMMENTS", "ITEM_ID");
+
+        statementCapture.clear();
+        requestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(1L);
+        assertPlanUsesIndexOn("REQUESTS", "REQUESTER_ID");
+
+        statementCapture.clear();
+        requestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(1L, PageRequest.of(0, 10));
+        assertPlanUsesIndex("REQUESTS_CREATED_ID_IDX");
+
+        statementCapture.clear();
+        requestRepository.findAllByRequesterIdNotBefore(1L, NOW, 10L, PageRequest.of(0, 10));
+        assertPlanUsesIndex("REQUESTS_CREATED_ID_IDX");
+    }
+
+    private void assertPlanUsesIndex(String index) {
+        String plan = explainLastStatement();
+
+        assertTrue(usesIndex(plan, index), plan);
+    }
+
+    private void assertPlanUsesIndexOn(String table, String column) {
+        String plan = explainLastStatement();
+        List<String> indexes = jdbcTemplate.queryForList("SELECT index_name FROM information_schema.index_columns " +
+                "WHERE table_name = ? AND column_name = ? AND ordinal_position = 1", String.class, table, column);
+
+        assertTrue(indexes.stream().anyMatch(index -> usesIndex(plan, index)), plan);
+    }
+
+    private boolean usesIndex(String plan, String index) {
+        // поиск по условию выводится как "/* PUBLIC.INDEX: условие */", полный проход по индексу как "/* PUBLIC.INDEX */"
+        return plan.contains("/* PUBLIC." + index + ":") || plan.contains("/* PUBLIC." + index + " */");
+    }
+
+    private String explainLastStatement() {
+        CapturedStatement statement = statementCapture.last();
+        return jdbcTemplate.queryForObject("EXPLAIN " + statement.sql, String.class,
+                statement.parameters.values().toArray());
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        static StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+
+    /**
+     * Оборачивает источник данных и запоминает SQL и параметры подготовленных запросов.
+     */
+    static class StatementCapture implements BeanPostProcessor {
+        private final List<CapturedStatement> statements = new ArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource) {
+                DataSource dataSource = (DataSource) bean;
+                return proxy(DataSource.class, dataSource, (method, args) -> {
+                    Object result = method.invoke(dataSource, args);
+                    return result instanceof Connection ? capture((Connection) result) : result;
+                });
+            }
+            return bean;
+        }
+
+        synchronized void clear() {
+            statements.clear();
+        }
+
+        synchronized CapturedStatement last() {
+            assertTrue(!statements.isEmpty(), "Репозиторий не выполнил ни одного запроса");
+            return statements.get(statements.size() - 1);
+        }
+
+        private synchronized void add(CapturedStatement statement) {
+            statements.add(statement);
+        }
+
+        private Connection capture(Connection connection) {
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (!method.getName().equals("prepareStatement") || !(result instanceof PreparedStatement)) {
+                    return result;
+                }
+                String sql = (String) args[0];
+                if (sql.startsWith("EXPLAIN ")) {
+                    return result;
+                }
+                CapturedStatement statement = new CapturedStatement(sql);
+                add(statement);
+                PreparedStatement preparedStatement = (PreparedStatement) result;
+                return proxy(PreparedStatement.class, preparedStatement, (psMethod, psArgs) -> {
+                    if (psMethod.getName().startsWith("set") && psArgs != null && psArgs.length >= 2
+                            && psArgs[0] instanceof Integer) {
+                        statement.parameters.put((Integer) psArgs[0], psArgs[1]);
+                    }
+                    return psMethod.invoke(preparedStatement, psArgs);
+                });
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                try {
+                    return invocation.invoke(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    private static class CapturedStatement {
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        private CapturedStatement(String sql) {
+            this.sql = sql;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package shareit.booking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.index.BookingIntervalTree;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Тестирование загрузки индекса и поиска пересечений")
+    void load_thenFindConflict() {
+        when(bookingRepository.findAllIntervals(anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(new BookingInterval(1L, 1L, now, now.plusDays(2L))));
+
+        bookingIntervalIndex.load();
+
+        assertTrue(bookingIntervalIndex.findConflict(1L, now.plusDays(1L), now.plusDays(3L)).isPresent());
+        assertTrue(bookingIntervalIndex.isAvailable(1L, now.plusDays(2L), now.plusDays(3L)));
+        assertTrue(bookingIntervalIndex.isAvailable(2L, now, now.plusDays(2L)));
+    }
+
+    @Test
+    @DisplayName("Тестирование резервирования пересекающегося периода")
+    void reserve_whenPeriodOverlaps_thenReturnConflict() {
+        BookingInterval first = new BookingInterval(1L, 1L, now, now.plusDays(2L));
+        BookingInterval second = new BookingInterval(2L, 1L, now.plusDays(1L), now.plusDays(3L));
+
+        assertTrue(bookingIntervalIndex.reserve(first).isEmpty());
+        Optional<BookingInterval> conflict = bookingIntervalIndex.reserve(second);
+
+        assertEquals(Optional.of(first), conflict);
+    }
+
+    @Test
+    @DisplayName("Тестирование освобождения периода")
+    void release_thenPeriodIsAvailable() {
+        bookingIntervalIndex.reserve(new BookingInterval(1L, 1L, now, now.plusDays(2L)));
+
+        bookingIntervalIndex.releaseAfterCommit(1L);
+
+        assertTrue(bookingIntervalIndex.isAvailable(1L, now, now.plusDays(2L)));
+        assertTrue(bookingIntervalIndex.findOverlapping(1L, now, now.plusDays(2L)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Тестирование дерева интервалов на большом числе бронирований")
+    void tree_whenManyIntervals_thenMatchesFullScan() {
+        Random random = new Random(42L);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<BookingInterval> all = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            LocalDateTime start = now.plusMinutes(random.nextInt(1_000_000));
+            BookingInterval interval = new BookingInterval(id, 1L, start, start.plusMinutes(1 + random.nextInt(600)));
+            tree.insert(interval);
+            all.add(interval);
+        }
+        for (int i = 0; i < all.size(); i += 3) {
+            assertTrue(tree.remove(all.get(i)));
+        }
+        List<BookingInterval> remaining = new ArrayList<>();
+        for (int i = 0; i < all.size(); i++) {
+            if (i % 3 != 0) {
+                remaining.add(all.get(i));
+            }
+        }
+
+        assertEquals(remaining.size(), tree.size());
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = now.plusMinutes(random.nextInt(1_000_000));
+            LocalDateTime end = start.plusMinutes(1 + random.nextInt(120));
+            List<Long> expected = remaining.stream()
+                    .filter(interval -> interval.overlaps(start, end))
+                    .map(BookingInterval::getBookingId)
+                    .sorted()
+                    .collect(Collectors.toList());
+            List<Long> actual = tree.findOverlaps(start, end).stream()
+                    .map(BookingInterval::getBookingId)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, actual);
+            assertEquals(!expected.isEmpty(), tree.findAnyOverlap(start, end).isPresent());
+        }
+    }
+}
@@ -2,6 +2,9 @@ package shareit.booking;
 
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookedItemDto;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -32,4 +35,16 @@ class BookingMapperTest {
         assertEquals(1L, actualBookingItemDto.getBookerId());
     }
 
+    @Test
+    void toBookingOut() {
+        User owner = User.builder().id(2L).name("owner").email("owner@email.com").build();
+        booking.setItem(Item.builder().id(3L).name("item").description("description").owner(owner).build());
+
+        BookingDtoOut actualBookingDtoOut = BookingMapper.toBookingOut(booking);
+
+        assertEquals(new BookedItemDto(3L, "item"), actualBookingDtoOut.getItem());
+        assertEquals(new BookerDto(1L, "name"), actualBookingDtoOut.getBooker());
+        assertEquals(BookingStatus.WAITING, actualBookingDtoOut.getStatus());
+    }
+
 }
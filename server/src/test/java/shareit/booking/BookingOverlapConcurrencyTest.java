@@ -0,0 +1,135 @@
+package shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Индекс интервалов в памяти отключён, как при нескольких экземплярах сервера:
+ * пересечения должна отклонять проверка в базе под блокировкой вещи.
+ */
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking-index.enabled=false")
+class BookingOverlapConcurrencyTest {
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDto owner;
+    private ItemDto item;
+    private final List<Long> bookerIds = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        owner = userService.add(UserDto.builder().name("owner").email("overlap-owner@email.com").build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .build());
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userService.add(UserDto.builder()
+                    .name("booker" + i)
+                    .email("overlap-booker" + i + "@email.com")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void clean() {
+        // потоки фиксируют свои транзакции, а база в памяти видна другим тестам
+        jdbcTemplate.update("DELETE FROM item_booking_summary WHERE item_id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'overlap-%'");
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование параллельного бронирования одного периода")
+    void add_whenManyThreadsBookOverlappingPeriods_thenOnlyOneSucceeds() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Long bookerId = bookerIds.get(i);
+            LocalDateTime bookingStart = start.plusHours(i);
+            futures.add(executor.submit(() -> {
+                latch.await();
+                try {
+                    bookingService.add(bookerId, BookingDto.builder()
+                            .itemId(item.getId())
+                            .start(bookingStart)
+                            .end(start.plusDays(2L))
+                            .build());
+                    booked.incrementAndGet();
+                } catch (ValidationException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        latch.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, booked.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ?",
+                Integer.class, item.getId()));
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование бронирования периода, освобождённого отказом")
+    void add_whenOverlappingBookingRejected_thenPeriodIsFree() {
+        BookingDto period = BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .build();
+        BookingDtoOut booking = bookingService.add(bookerIds.get(0), period);
+
+        assertThrows(ValidationException.class, () -> bookingService.add(bookerIds.get(1), period));
+
+        bookingService.update(owner.getId(), booking.getId(), false);
+
+        assertDoesNotThrow(() -> bookingService.add(bookerIds.get(1), period));
+    }
+}
@@ -0,0 +1,81 @@
+package shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingOverlapTest {
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private UserDto booker;
+    private ItemDto item;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1L).truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void init() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("owner@email.com").build());
+        booker = userService.add(UserDto.builder().name("booker").email("booker@email.com").build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование добавления пересекающегося бронирования")
+    void add_whenPeriodOverlaps_thenThrowValidationException() {
+        BookingDtoOut booking = bookingService.add(booker.getId(), period(start, start.plusHours(2L)));
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.add(booker.getId(), period(start.plusHours(1L), start.plusHours(3L))));
+
+        assertEquals(String.format("Вещь с id %s уже забронирована с %s по %s.", item.getId(),
+                booking.getStart(), booking.getEnd()), exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Интеграционное тестирование добавления бронирования вплотную к существующему")
+    void add_whenPeriodsTouch_thenAddBoth() {
+        bookingService.add(booker.getId(), period(start, start.plusHours(2L)));
+
+        assertDoesNotThrow(() -> bookingService.add(booker.getId(), period(start.plusHours(2L), start.plusHours(3L))));
+        assertDoesNotThrow(() -> bookingService.add(booker.getId(), period(start.minusHours(1L), start)));
+    }
+
+    private BookingDto period(LocalDateTime periodStart, LocalDateTime periodEnd) {
+        return BookingDto.builder()
+                .itemId(item.getId())
+                .start(periodStart)
+                .end(periodEnd)
+                .build();
+    }
+}
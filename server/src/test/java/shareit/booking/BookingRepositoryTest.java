@@ -7,24 +7,35 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.PageCursor;
 
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @DataJpaTest
+@ContextConfiguration(classes = ShareItServer.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class BookingRepositoryTest {
 
@@ -94,17 +105,57 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех бронирований по Id пользователя")
     void findAllByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllByBookerId(1L, PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 3);
         assertEquals(bookings.getContent().get(0).getBooker().getId(), 1L);
     }
 
+    @Test
+    @DisplayName("Тестирование получения среза бронирований с признаком следующей страницы")
+    void findAllByState_whenMoreBookingsThanPageSize_thenHasNext() {
+        Slice<BookingDtoOut> firstPage = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 2));
+        Slice<BookingDtoOut> lastPage = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(1, 2));
+
+        assertEquals(firstPage.getContent().size(), 2);
+        assertTrue(firstPage.hasNext());
+        assertEquals(lastPage.getContent().size(), 1);
+        assertFalse(lastPage.hasNext());
+    }
+
+    @Test
+    @DisplayName("Тестирование получения следующей страницы бронирований по курсору")
+    void findAllByState_whenCursorGiven_thenReturnBookingsAfterIt() {
+        Booking sameStartBooking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.WAITING)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Slice<BookingDtoOut> firstPage = bookingRepository.findAllByState(BookingRole.BOOKER, user.getId(),
+                BookingState.ALL, LocalDateTime.now(), PageRequest.of(0, 2));
+        BookingDtoOut last = firstPage.getContent().get(1);
+        Slice<BookingDtoOut> nextPage = bookingRepository.findAllByState(BookingRole.BOOKER, user.getId(),
+                BookingState.ALL, LocalDateTime.now(), PageCursor.of(last.getStart(), last.getId()),
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of(futureBooking.getId(), sameStartBooking.getId()), ids(firstPage));
+        assertEquals(List.of(booking.getId(), pastBooking.getId()), ids(nextPage));
+        assertFalse(nextPage.hasNext());
+    }
+
     @Test
     @DisplayName("Тестирование получения всех текущих бронирований")
     void findAllCurrentBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllCurrentBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.CURRENT,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
         assertEquals(bookings.getContent().get(0).getBooker().getId(), 1L);
@@ -113,8 +164,8 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех закончившихся бронирований")
     void findAllPastBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllPastBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.PAST,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
         assertEquals(bookings.getContent().get(0).getId(), 2L);
@@ -123,8 +174,8 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех будущих бронирований")
     void findAllFutureBookingsByBookerId() {
-        Page<Booking> bookings = bookingRepository.findAllFutureBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.FUTURE,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
         assertEquals(bookings.getContent().get(0).getId(), 3L);
@@ -142,8 +193,8 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(waitingBooking);
-        Page<Booking> bookings = bookingRepository.findAllWaitingBookingsByBookerId(1L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.WAITING,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
         assertEquals(bookings.getContent().get(0).getStatus(), BookingStatus.WAITING);
@@ -161,8 +212,8 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(rejectedBooking);
-        Page<Booking> bookings = bookingRepository.findAllRejectedBookingsByBookerId(1L,
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.BOOKER, 1L, BookingState.REJECTED,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
         assertEquals(bookings.getContent().get(0).getStatus(), BookingStatus.REJECTED);
@@ -171,7 +222,8 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех бронирований по Id владельца")
     void findAllByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllByOwnerId(2L, PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.OWNER, 2L, BookingState.ALL,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 3);
     }
@@ -179,31 +231,31 @@ class BookingRepositoryTest {
     @Test
     @DisplayName("Тестирование получения всех текущих бронирований по Id владельца")
     void findAllCurrentBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllCurrentBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.OWNER, 2L, BookingState.CURRENT,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
-        assertEquals(bookings.getContent().get(0).getItem().getOwner().getId(), 2L);
+        assertEquals(bookings.getContent().get(0).getItem().getId(), item.getId());
     }
 
     @Test
     @DisplayName("Тестирование получения всех закончившихся бронирований по Id владельца")
     void findAllPastBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllPastBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.OWNER, 2L, BookingState.PAST,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
-        assertEquals(bookings.getContent().get(0).getItem().getOwner().getId(), 2L);
+        assertEquals(bookings.getContent().get(0).getItem().getId(), item.getId());
     }
 
     @Test
     @DisplayName("Тестирование получения всех будущих бронирований по Id владельца")
     void findAllFutureBookingsByOwnerId() {
-        Page<Booking> bookings = bookingRepository.findAllFutureBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.OWNER, 2L, BookingState.FUTURE,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
-        assertEquals(bookings.getContent().get(0).getItem().getOwner().getId(), 2L);
+        assertEquals(bookings.getContent().get(0).getItem().getId(), item.getId());
     }
 
     @Test
@@ -218,8 +270,8 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(waitingBooking);
-        Page<Booking> bookings = bookingRepository.findAllWaitingBookingsByOwnerId(2L, LocalDateTime.now(),
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.OWNER, 2L, BookingState.WAITING,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
         assertEquals(bookings.getContent().get(0).getStatus(), BookingStatus.WAITING);
@@ -237,8 +289,8 @@ class BookingRepositoryTest {
                 .build();
 
         bookingRepository.save(rejectedBooking);
-        Page<Booking> bookings = bookingRepository.findAllRejectedBookingsByOwnerId(2L,
-                PageRequest.of(0, 10));
+        Slice<BookingDtoOut> bookings = bookingRepository.findAllByState(BookingRole.OWNER, 2L, BookingState.REJECTED,
+                LocalDateTime.now(), PageRequest.of(0, 10));
 
         assertEquals(bookings.getContent().size(), 1);
         assertEquals(bookings.getContent().get(0).getStatus(), BookingStatus.REJECTED);
@@ -285,6 +337,23 @@ class BookingRepositoryTest {
         }
     }
 
-}
-
+    @Test
+    @DisplayName("Тестирование получения последних и следующих бронирований по списку вещей")
+    void findLastAndNextBookings() {
+        List<BookingItemView> lastBookings = bookingRepository.findLastBookings(List.of(1L), LocalDateTime.now());
+        List<BookingItemView> nextBookings = bookingRepository.findNextBookings(List.of(1L), LocalDateTime.now());
+
+        assertEquals(lastBookings.size(), 1);
+        assertEquals(lastBookings.get(0).getId(), 1L);
+        assertEquals(lastBookings.get(0).getItemId(), 1L);
+        assertEquals(nextBookings.size(), 1);
+        assertEquals(nextBookings.get(0).getId(), 3L);
+        assertEquals(nextBookings.get(0).getBookerId(), 1L);
+    }
 
+    private List<Long> ids(Slice<BookingDtoOut> bookings) {
+        return bookings.getContent().stream()
+                .map(BookingDtoOut::getId)
+                .collect(Collectors.toList());
+    }
+}
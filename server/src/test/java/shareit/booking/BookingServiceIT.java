@@ -62,8 +62,14 @@ public class BookingServiceIT {
 
     private final BookingDto bookingDto1 = BookingDto.builder()
             .itemId(2L)
-            .start(LocalDateTime.now().plusSeconds(10L))
-            .end(LocalDateTime.now().plusSeconds(11L))
+            .start(LocalDateTime.now().plusHours(1L))
+            .end(LocalDateTime.now().plusHours(2L))
+            .build();
+
+    private final BookingDto bookingDto2 = BookingDto.builder()
+            .itemId(2L)
+            .start(LocalDateTime.now().plusHours(3L))
+            .end(LocalDateTime.now().plusHours(4L))
             .build();
 
     @Test
@@ -75,7 +81,7 @@ public class BookingServiceIT {
         itemService.create(addedUser2.getId(), itemDto2);
 
         BookingDtoOut bookingDtoOut1 = bookingService.add(addedUser1.getId(), bookingDto1);
-        BookingDtoOut bookingDtoOut2 = bookingService.add(addedUser1.getId(), bookingDto1);
+        BookingDtoOut bookingDtoOut2 = bookingService.add(addedUser1.getId(), bookingDto2);
 
         assertEquals(1L, bookingDtoOut1.getId());
         assertEquals(2L, bookingDtoOut2.getId());
@@ -91,7 +97,7 @@ public class BookingServiceIT {
         assertEquals(BookingStatus.APPROVED, updatedBookingDto2.getStatus());
 
         List<BookingDtoOut> bookingsDtoOut = bookingService.getAllOwner(addedUser2.getId(),
-                BookingState.ALL.toString(), 0, 10);
+                BookingState.ALL.toString(), 0, 10, null).getItems();
 
         assertEquals(2, bookingsDtoOut.size());
     }
@@ -0,0 +1,140 @@
+package shareit.booking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingItemView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryUpdaterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemBookingSummaryUpdater summaryUpdater;
+
+    @Test
+    @DisplayName("Тестирование создания сводки при первом подтверждённом бронировании вещи")
+    void refresh_whenNoSummary_thenSaveNew() {
+        when(itemRepository.lockByIds(List.of(1L))).thenReturn(List.of(1L));
+        when(bookingRepository.findNextBookings(List.of(1L), NOW))
+                .thenReturn(List.of(view(10L, 1L, 2L, NOW.plusDays(1))));
+
+        summaryUpdater.refresh(List.of(1L), NOW);
+
+        ArgumentCaptor<ItemBookingSummary> captor = ArgumentCaptor.forClass(ItemBookingSummary.class);
+        verify(summaryRepository).save(captor.capture());
+        ItemBookingSummary summary = captor.getValue();
+        assertEquals(1L, summary.getItemId());
+        assertNull(summary.getLastBookingId());
+        assertEquals(10L, summary.getNextBookingId());
+        assertEquals(2L, summary.getNextBookerId());
+        assertEquals(NOW.plusDays(1), summary.getNextStart());
+    }
+
+    @Test
+    @DisplayName("Тестирование переноса начавшегося следующего бронирования в последнее")
+    void rollForward_whenNextBookingStarted_thenNextBecomesLast() {
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                .itemId(1L)
+                .nextBookingId(10L)
+                .nextBookerId(2L)
+                .nextStart(NOW.minusHours(1))
+                .nextEnd(NOW.plusDays(1))
+                .build();
+        when(summaryRepository.findStaleItemIds(NOW, 100)).thenReturn(List.of(1L));
+        when(itemRepository.lockByIds(List.of(1L))).thenReturn(List.of(1L));
+        when(bookingRepository.findLastBookings(List.of(1L), NOW))
+                .thenReturn(List.of(view(10L, 1L, 2L, NOW.minusHours(1))));
+        when(summaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+
+        assertEquals(1, summaryUpdater.rollForward(NOW, 100));
+
+        assertEquals(10L, summary.getLastBookingId());
+        assertEquals(NOW.minusHours(1), summary.getLastStart());
+        assertNull(summary.getNextBookingId());
+        assertNull(summary.getNextStart());
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Тестирование пересчёта без вещей и без подтверждённых бронирований")
+    void refresh_whenNothingToStore_thenNoSummary() {
+        summaryUpdater.refresh(List.of(), NOW);
+        when(itemRepository.lockByIds(List.of(2L))).thenReturn(List.of(2L));
+
+        summaryUpdater.refresh(List.of(2L), NOW);
+
+        verify(bookingRepository, never()).findLastBookings(List.of(), NOW);
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Тестирование пересчёта удалённой вещи")
+    void refresh_whenItemDeleted_thenSkip() {
+        when(itemRepository.lockByIds(List.of(3L))).thenReturn(List.of());
+
+        summaryUpdater.refresh(List.of(3L), NOW);
+
+        verify(bookingRepository, never()).findLastBookings(anyList(), any(LocalDateTime.class));
+        verify(summaryRepository, never()).findAllById(anyList());
+    }
+
+    private BookingItemView view(Long id, Long itemId, Long bookerId, LocalDateTime start) {
+        return new BookingItemView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return start.plusDays(1);
+            }
+        };
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
@@ -20,6 +22,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
+@ContextConfiguration(classes = ShareItServer.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class CommentRepositoryTest {
 
@@ -69,4 +72,12 @@ class CommentRepositoryTest {
         assertEquals(comments.get(0).getText(), "comment");
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Тестирование получения комментариев по списку Id вещей")
+    void findAllByItemIdIn() {
+        List<Comment> comments = commentRepository.findAllByItemIdIn(List.of(1L, 2L));
+
+        assertEquals(comments.size(), 1);
+        assertEquals(comments.get(0).getAuthor().getName(), "name");
+    }
+}
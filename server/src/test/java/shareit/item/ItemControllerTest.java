@@ -16,6 +16,8 @@ import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.ETagged;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -129,7 +131,7 @@ class ItemControllerTest {
                 .available(true)
                 .build();
 
-        when(itemService.getItemById(userId, itemId)).thenReturn(itemDtoToCreate);
+        when(itemService.getItemWithETag(userId, itemId)).thenReturn(new ETagged<>("v0", itemDtoToCreate));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", itemId)
                         .contentType("application/json")
@@ -156,7 +158,7 @@ class ItemControllerTest {
                 .available(true)
                 .build());
 
-        when(itemService.getAll(userId, from, size)).thenReturn(itemsDtoToExpect);
+        when(itemService.getAll(userId, from, size, null)).thenReturn(new CursorPage<>(itemsDtoToExpect, null));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/items", from, size)
                         .header("X-Sharer-User-Id", userId))
@@ -182,7 +184,7 @@ class ItemControllerTest {
                 .available(true)
                 .build());
 
-        when(itemService.search(userId, text, from, size)).thenReturn(itemsDtoToExpect);
+        when(itemService.search(userId, text, from, size, null)).thenReturn(new CursorPage<>(itemsDtoToExpect, null));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/items/search", from, size)
                         .header("X-Sharer-User-Id", userId)
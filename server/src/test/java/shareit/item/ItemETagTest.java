@@ -0,0 +1,74 @@
+package shareit.item;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@Transactional
+@SpringBootTest(classes = ShareItServer.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ItemETagTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    @DisplayName("Интеграционное тестирование смены ETag вещи и запроса после изменений")
+    void getItemETag_whenItemChanged_thenETagChanges() {
+        UserDto owner = userService.add(UserDto.builder().name("owner").email("etag-owner@email.com").build());
+        UserDto booker = userService.add(UserDto.builder().name("booker").email("etag-booker@email.com").build());
+        ItemRequestDto request = requestService.add(booker.getId(), ItemRequestDto.builder()
+                .description("request description")
+                .build());
+        String requestETag = requestService.getRequestETag(booker.getId(), request.getId());
+        ItemDto addedItem = itemService.create(owner.getId(), ItemDto.builder()
+                .name("item name")
+                .description("item description")
+                .available(true)
+                .requestId(request.getId())
+                .build());
+
+        assertEquals("v0-s0", itemService.getItemETag(owner.getId(), addedItem.getId()));
+        assertEquals("v0", itemService.getItemETag(booker.getId(), addedItem.getId()));
+        assertNotEquals(requestETag, requestService.getRequestETag(booker.getId(), request.getId()));
+
+        itemService.update(owner.getId(), addedItem.getId(), ItemDto.builder().name("new name").build());
+        assertEquals("v1-s0", itemService.getItemETag(owner.getId(), addedItem.getId()));
+
+        BookingDtoOut booking = bookingService.add(booker.getId(), BookingDto.builder()
+                .itemId(addedItem.getId())
+                .start(LocalDateTime.now().plusSeconds(20L))
+                .end(LocalDateTime.now().plusSeconds(21L))
+                .build());
+        bookingService.update(owner.getId(), booking.getId(), true);
+        assertEquals("v2-s0", itemService.getItemETag(owner.getId(), addedItem.getId()));
+        assertEquals("v2-s0", itemService.getItemWithETag(owner.getId(), addedItem.getId()).getETag());
+        assertEquals("v2", itemService.getItemWithETag(booker.getId(), addedItem.getId()).getETag());
+        assertEquals("new name", itemService.getItemWithETag(booker.getId(), addedItem.getId()).getBody().getName());
+    }
+}
@@ -0,0 +1,126 @@
+package shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.bulk.ItemBatchWriter;
+import ru.practicum.shareit.item.bulk.ItemImporter;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImporterTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private ItemBatchWriter itemBatchWriter;
+
+    private ItemImporter itemImporter;
+
+    @BeforeEach
+    void setUp() {
+        itemImporter = new ItemImporter(new ObjectMapper(), requestRepository, itemBatchWriter, 2, 10);
+    }
+
+    @Test
+    @DisplayName("Тестирование импорта NDJSON пачками заданного размера")
+    void importItems_whenNdjson_thenWriteInBatches() {
+        ItemImportResultDto result = itemImporter.importItems(1L, body(
+                "{\"name\":\"Дрель\",\"description\":\"Сетевая\",\"available\":true}\n" +
+                        "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":false}\n" +
+                        "{\"name\":\"Лестница\",\"description\":\"Складная\",\"available\":true}\n"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ItemImportRowDto>> batches = ArgumentCaptor.forClass(List.class);
+        verify(itemBatchWriter, times(2)).write(eq(1L), batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals("Лестница", batches.getAllValues().get(1).get(0).getName());
+        assertEquals(3L, result.getImported());
+        assertEquals(0L, result.getRejected());
+    }
+
+    @Test
+    @DisplayName("Тестирование импорта JSON-массива с некорректными строками")
+    void importItems_whenArrayHasInvalidRows_thenRejectThem() {
+        ItemImportResultDto result = itemImporter.importItems(1L, body("[" +
+                "{\"name\":\"Дрель\",\"description\":\"Сетевая\",\"available\":true}," +
+                "{\"name\":\" \",\"description\":\"Ручная\",\"available\":true}," +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\"}," +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":\"нет\"}," +
+                "42" +
+                "]"));
+
+        verify(itemBatchWriter).write(eq(1L), anyList());
+        assertEquals(1L, result.getImported());
+        assertEquals(4L, result.getRejected());
+        assertEquals(List.of(2L, 3L, 4L, 5L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getRow)
+                .collect(Collectors.toList()));
+        assertEquals("Поле name не должно быть пустым", result.getErrors().get(0).getError());
+        assertEquals("Поле available не должно быть null", result.getErrors().get(1).getError());
+    }
+
+    @Test
+    @DisplayName("Тестирование импорта вещи для несуществующего запроса")
+    void importItems_whenRequestNotFound_thenRejectRow() {
+        when(requestRepository.findExistingIds(Set.of(5L, 6L))).thenReturn(List.of(5L));
+
+        ItemImportResultDto result = itemImporter.importItems(1L, body(
+                "{\"name\":\"Дрель\",\"description\":\"Сетевая\",\"available\":true,\"requestId\":5}\n" +
+                        "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true,\"requestId\":6}\n"));
+
+        assertEquals(1L, result.getImported());
+        assertEquals(new ItemImportErrorDto(2L, "Запрос с id 6 не найден."), result.getErrors().get(0));
+    }
+
+    @Test
+    @DisplayName("Тестирование прерывания импорта на некорректном JSON")
+    void importItems_whenJsonIsMalformed_thenKeepPreviousRows() {
+        ItemImportResultDto result = itemImporter.importItems(1L, body(
+                "{\"name\":\"Дрель\",\"description\":\"Сетевая\",\"available\":true}\n" +
+                        "{\"name\":\"Пила\",\"descr\n"));
+
+        verify(itemBatchWriter).write(eq(1L), anyList());
+        assertEquals(1L, result.getImported());
+        assertEquals(1L, result.getRejected());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+    }
+
+    @Test
+    @DisplayName("Тестирование импорта пустого тела")
+    void importItems_whenBodyIsEmpty_thenImportNothing() {
+        ItemImportResultDto result = itemImporter.importItems(1L, body(""));
+
+        verify(itemBatchWriter, never()).write(eq(1L), anyList());
+        assertEquals(0L, result.getImported());
+        assertEquals(0L, result.getRejected());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
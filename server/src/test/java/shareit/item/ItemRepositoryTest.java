@@ -7,9 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -20,8 +21,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
+@ContextConfiguration(classes = ShareItServer.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
-@Import(ItemRepository.class)
 class ItemRepositoryTest {
 
     @Autowired
@@ -56,11 +57,27 @@ class ItemRepositoryTest {
 
     @Test
     @DisplayName("Тестирование получения всех вещей пользователя по Id")
-    void findAllByOwnerIdOrderByIdAsc() {
-        List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(1L, PageRequest.of(0, 1)).getContent();
+    void findAllByOwnerIdAndIdGreaterThanOrderByIdAsc() {
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(1L, 0L, PageRequest.of(0, 1));
 
         assertEquals(items.size(), 1);
         assertEquals(items.get(0).getName(), "name");
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Тестирование поиска доступных вещей по тексту")
+    void search() {
+        Item unavailableItem = Item.builder()
+                .name("name")
+                .description("unavailable description")
+                .available(false)
+                .owner(user)
+                .build();
+        itemRepository.save(unavailableItem);
+
+        List<Item> items = itemRepository.search("%descr%", 0L, PageRequest.of(0, 10));
+
+        assertEquals(items.size(), 1);
+        assertEquals(items.get(0).getDescription(), "description");
+    }
+}
@@ -0,0 +1,148 @@
+package shareit.item;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
+import ru.practicum.shareit.item.search.JpaItemSearch;
+import ru.practicum.shareit.item.search.LongPostings;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    @DisplayName("Тестирование экранирования спецсимволов в поиске вещи")
+    void jpaSearch_whenTextHasWildcards_thenEscapeThem() {
+        new JpaItemSearch(itemRepository).search("50%_Off", 0L, PageRequest.of(0, 10));
+
+        verify(itemRepository).search(eq("%50\\%\\_off%"), eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Тестирование поиска по индексу с префиксами слов")
+    void indexSearch_whenAllTokensMatch_thenReturnIds() {
+        InvertedIndexItemSearch search = loadedSearch(
+                new ItemSearchDocument(1L, "Дрель", "Аккумуляторная дрель", true),
+                new ItemSearchDocument(2L, "Отвёртка", "Аккумуляторная отвёртка", true),
+                new ItemSearchDocument(3L, "Дрель", "Ударная, сетевая", false));
+
+        assertArrayEquals(new long[]{1L, 2L}, search.findIds("аккум"));
+        assertArrayEquals(new long[]{1L}, search.findIds("ДРЕЛЬ аккумуляторная"));
+        assertArrayEquals(new long[0], search.findIds("ударная"));
+        assertArrayEquals(new long[0], search.findIds("  ,  "));
+    }
+
+    @Test
+    @DisplayName("Тестирование обновления индекса при сохранении вещи")
+    void indexSearch_whenItemSaved_thenIndexUpdated() {
+        InvertedIndexItemSearch search = loadedSearch(new ItemSearchDocument(1L, "Дрель", "Сетевая", true));
+        Item item = Item.builder().id(1L).name("Перфоратор").description("Сетевой").available(true).build();
+
+        search.onSave(item, new ItemSearchDocument(1L, "Дрель", "Сетевая", true));
+
+        assertArrayEquals(new long[0], search.findIds("дрель"));
+        assertArrayEquals(new long[]{1L}, search.findIds("перфоратор"));
+
+        search.onSave(Item.builder().id(1L).name("Перфоратор").description("Сетевой").available(false).build(),
+                ItemSearchDocument.of(item));
+
+        assertArrayEquals(new long[0], search.findIds("перфоратор"));
+
+        search.onSave(Item.builder().id(2L).name("Лестница").description("Стремянка").available(true).build(), null);
+
+        assertArrayEquals(new long[]{2L}, search.findIds("стрем"));
+    }
+
+    @Test
+    @DisplayName("Тестирование постраничного поиска по индексу")
+    void indexSearch_thenLoadOnlyRequestedPage() {
+        InvertedIndexItemSearch search = loadedSearch(
+                new ItemSearchDocument(1L, "Палатка", "Двухместная", true),
+                new ItemSearchDocument(2L, "Палатка", "Трёхместная", true),
+                new ItemSearchDocument(3L, "Палатка", "Четырёхместная", true));
+        Item second = Item.builder().id(2L).name("Палатка").build();
+        when(itemRepository.findAllById(List.of(2L))).thenReturn(List.of(second));
+
+        List<Item> items = search.search("палатка", 0L, PageRequest.of(1, 1));
+
+        assertEquals(List.of(second), items);
+    }
+
+    @Test
+    @DisplayName("Тестирование поиска по индексу после вещи из курсора")
+    void indexSearch_whenAfterIdGiven_thenStartAfterIt() {
+        InvertedIndexItemSearch search = loadedSearch(
+                new ItemSearchDocument(1L, "Палатка", "Двухместная", true),
+                new ItemSearchDocument(4L, "Палатка", "Трёхместная", true),
+                new ItemSearchDocument(7L, "Палатка", "Четырёхместная", true));
+        Item last = Item.builder().id(7L).name("Палатка").build();
+        when(itemRepository.findAllById(List.of(7L))).thenReturn(List.of(last));
+
+        List<Item> items = search.search("палатка", 4L, PageRequest.of(0, 10));
+
+        assertEquals(List.of(last), items);
+    }
+
+    @Test
+    @DisplayName("Тестирование операций над списками id")
+    void postings_thenKeepIdsSorted() {
+        LongPostings postings = new LongPostings();
+        postings.add(5L);
+        postings.add(1L);
+        postings.add(3L);
+        postings.add(3L);
+        postings.add(7L);
+
+        assertTrue(postings.remove(5L));
+        assertFalse(postings.remove(4L));
+        assertArrayEquals(new long[]{1L, 3L, 7L}, postings.toArray());
+        assertArrayEquals(new long[]{3L, 7L}, LongPostings.intersect(postings.toArray(), new long[]{2L, 3L, 7L}));
+    }
+
+    @Test
+    @DisplayName("Тестирование объединения списков id нескольких терминов")
+    void postings_whenUnionAll_thenMergeWithoutDuplicates() {
+        LongPostings first = postingsOf(1L, 4L, 9L);
+        LongPostings second = postingsOf(2L, 4L);
+        LongPostings third = postingsOf(3L, 9L, 12L);
+
+        assertArrayEquals(new long[]{1L, 2L, 3L, 4L, 9L, 12L},
+                LongPostings.unionAll(List.of(first, second, new LongPostings(), third)));
+        assertArrayEquals(new long[]{2L, 4L}, LongPostings.unionAll(List.of(second)));
+        assertArrayEquals(new long[0], LongPostings.unionAll(List.of()));
+    }
+
+    private LongPostings postingsOf(long... ids) {
+        LongPostings postings = new LongPostings();
+        for (long id : ids) {
+            postings.add(id);
+        }
+        return postings;
+    }
+
+    private InvertedIndexItemSearch loadedSearch(ItemSearchDocument... documents) {
+        when(itemRepository.findSearchDocuments(anyLong(), any(Pageable.class))).thenReturn(List.of(documents));
+        InvertedIndexItemSearch search = new InvertedIndexItemSearch(itemRepository);
+        search.load();
+        return search;
+    }
+}
@@ -8,22 +8,26 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingItemView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
@@ -31,6 +35,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -52,9 +57,18 @@ class ItemServiceImplTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemSearch itemSearch;
+
+    @Mock
+    private RequestRepository requestRepository;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -238,7 +252,6 @@ class ItemServiceImplTest {
     @Test
     @DisplayName("Тестирование получения вещи по Id")
     void getItemById() {
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         ItemDto actualItemDto = itemService.getItemById(user.getId(), item.getId());
@@ -246,6 +259,29 @@ class ItemServiceImplTest {
         assertEquals(itemDto, actualItemDto);
     }
 
+    @Test
+    @DisplayName("Тестирование ETag вещи для владельца и для других пользователей")
+    void getItemETag_whenOwner_thenIncludeStartedBookings() {
+        ItemVersionView version = mock(ItemVersionView.class);
+        when(version.getOwnerId()).thenReturn(user.getId());
+        when(version.getVersion()).thenReturn(3L);
+        when(itemRepository.findVersionById(item.getId())).thenReturn(Optional.of(version));
+        when(bookingRepository.countStartedApproved(eq(item.getId()), any(LocalDateTime.class))).thenReturn(2L);
+
+        assertEquals("v3-s2", itemService.getItemETag(user.getId(), item.getId()));
+        assertEquals("v3", itemService.getItemETag(user.getId() + 1, item.getId()));
+        verify(bookingRepository, times(1)).countStartedApproved(eq(item.getId()), any(LocalDateTime.class));
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Тестирование ETag несуществующей вещи")
+    void getItemETag_whenItemNotFound_thenThrowNotFoundException() {
+        when(itemRepository.findVersionById(item.getId())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemETag(user.getId(), item.getId()));
+    }
+
     @Test
     @DisplayName("Тестирование получения всех комментариев")
     void getAllComments() {
@@ -261,11 +297,9 @@ class ItemServiceImplTest {
     @Test
     @DisplayName("Тестирование поиска вещи")
     void searchItems() {
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
-        Page<Item> items = new PageImpl<>(List.of(item));
-        when(itemRepository.findAll(any(Pageable.class))).thenReturn(items);
+        when(itemSearch.search(eq("ItEm"), eq(0L), any(Pageable.class))).thenReturn(List.of(item));
 
-        List<ItemDto> actualItemsDto = itemService.search(user.getId(), "item", 0, 10);
+        List<ItemDto> actualItemsDto = itemService.search(user.getId(), "ItEm", 0, 10, null).getItems();
 
         assertEquals(1, actualItemsDto.size());
         assertEquals(1, actualItemsDto.get(0).getId());
@@ -315,4 +349,118 @@ class ItemServiceImplTest {
                 "предмета с id %s.", user.getId(), item.getId()));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Тестирование получения вещей владельца: число запросов не зависит от размера страницы")
+    void getAll_whenPageSizeGrows_thenQueryCountIsConstant() {
+        List<Item> page = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            page.add(Item.builder().id(id).name("item" + id).description("description").available(true)
+                    .owner(user).build());
+        }
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThanOrderByIdAsc(anyLong(), anyLong(), any(Pageable.class)))
+                .thenReturn(page.subList(0, 1))
+                .thenReturn(page);
+        when(summaryRepository.findAllById(anyList())).thenReturn(List.of(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .nextBookingId(nextBooking.getId())
+                .nextBookerId(user.getId())
+                .nextStart(nextBooking.getStart())
+                .nextEnd(nextBooking.getEnd())
+                .build()));
+        when(commentRepository.findAllByItemIdIn(anyList())).thenReturn(List.of(comment));
+
+        List<ItemDto> smallPage = itemService.getAll(user.getId(), 0, 1, null).getItems();
+        List<ItemDto> largePage = itemService.getAll(user.getId(), 0, 50, null).getItems();
+
+        assertEquals(1, smallPage.size());
+        assertEquals(50, largePage.size());
+        assertEquals(nextBooking.getId(), largePage.get(0).getNextBooking().getId());
+        assertEquals(1, largePage.get(0).getComments().size());
+        assertEquals(0, largePage.get(1).getComments().size());
+        verify(summaryRepository, times(2)).findAllById(anyList());
+        verify(bookingRepository, never()).findLastBookings(anyList(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).findNextBookings(anyList(), any(LocalDateTime.class));
+        verify(commentRepository, times(2)).findAllByItemIdIn(anyList());
+        verify(bookingRepository, never()).getLastBooking(anyLong(), any(LocalDateTime.class));
+        verify(commentRepository, never()).findAllByItemId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Тестирование получения вещи владельцем: бронирования берутся из сводки")
+    void getItemById_whenOwner_thenBookingsFromSummary() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(summaryRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastBookingId(lastBooking.getId())
+                .lastBookerId(user.getId())
+                .lastStart(lastBooking.getStart())
+                .lastEnd(lastBooking.getEnd())
+                .nextBookingId(nextBooking.getId())
+                .nextBookerId(user.getId())
+                .nextStart(nextBooking.getStart())
+                .nextEnd(nextBooking.getEnd())
+                .build()));
+
+        ItemDto actualItemDto = itemService.getItemById(user.getId(), item.getId());
+
+        assertEquals(lastBooking.getId(), actualItemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), actualItemDto.getNextBooking().getId());
+        verify(bookingRepository, never()).findLastBookings(anyList(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).findNextBookings(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Тестирование получения вещи владельцем: начавшееся следующее бронирование выбирается заново")
+    void getItemById_whenNextBookingStarted_thenBookingsFromBookings() {
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(summaryRepository.findAllById(List.of(item.getId()))).thenReturn(List.of(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .lastBookingId(pastBooking.getId())
+                .lastBookerId(user.getId())
+                .lastStart(pastBooking.getStart())
+                .lastEnd(pastBooking.getEnd())
+                .nextBookingId(lastBooking.getId())
+                .nextBookerId(user.getId())
+                .nextStart(lastBooking.getStart())
+                .nextEnd(lastBooking.getEnd())
+                .build()));
+        when(bookingRepository.findLastBookings(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingItemView(lastBooking)));
+        when(bookingRepository.findNextBookings(eq(List.of(item.getId())), any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingItemView(nextBooking)));
+
+        ItemDto actualItemDto = itemService.getItemById(user.getId(), item.getId());
+
+        assertEquals(lastBooking.getId(), actualItemDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), actualItemDto.getNextBooking().getId());
+    }
+
+    private BookingItemView bookingItemView(Booking booking) {
+        return new BookingItemView() {
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getItemId() {
+                return booking.getItem().getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booking.getBooker().getId();
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return booking.getStart();
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return booking.getEnd();
+            }
+        };
+    }
+}
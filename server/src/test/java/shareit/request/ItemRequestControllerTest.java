@@ -13,6 +13,7 @@ import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.RequestService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.CursorPage;
 
 
 import java.nio.charset.StandardCharsets;
@@ -92,7 +93,8 @@ class ItemRequestControllerTest {
     void getAllRequests() {
         Integer from = 0;
         Integer size = 10;
-        when(requestService.getAllRequests(user.getId(), from, size)).thenReturn(List.of(requestDto));
+        when(requestService.getAllRequests(user.getId(), from, size, null))
+                .thenReturn(new CursorPage<>(List.of(requestDto), null));
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/requests/all")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -112,6 +114,7 @@ class ItemRequestControllerTest {
     void get() {
         Long requestId = 1L;
 
+        when(requestService.getRequestETag(user.getId(), requestId)).thenReturn("v0");
         when(requestService.getRequestById(user.getId(), requestId)).thenReturn(requestDto);
 
         String result = mockMvc.perform(MockMvcRequestBuilders.get("/requests/{requestId}", requestId)
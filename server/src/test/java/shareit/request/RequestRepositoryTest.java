@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.RequestRepository;
@@ -15,10 +17,12 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @DataJpaTest
+@ContextConfiguration(classes = ShareItServer.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class RequestRepositoryTest {
 
@@ -72,10 +76,44 @@ class RequestRepositoryTest {
     @Test
     @DisplayName("Тестирование получения запросов по Id пользователя")
     void findAllByRequesterIdOrderByCreated() {
-        List<ItemRequest> requests = requestRepository.findAllByRequesterId(1L);
+        List<ItemRequest> requests = requestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(user1.getId());
 
         assertEquals(requests.size(), 1);
         assertEquals(requests.get(0).getDescription(), "request description");
     }
 
+    @Test
+    @DisplayName("Тестирование порядка запросов пользователя с одинаковым временем создания")
+    void findAllByRequesterIdOrderByCreated_whenCreatedEqual_thenOrderByIdDesc() {
+        ItemRequest sameCreated = requestRepository.save(ItemRequest.builder()
+                .description("request3 description")
+                .requester(user1)
+                .build());
+        ItemRequest older = requestRepository.save(ItemRequest.builder()
+                .description("request4 description")
+                .requester(user1)
+                .build());
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        // created заполняет @CreationTimestamp, поэтому одинаковое время задаётся уже в базе
+        setCreated(created, request1, sameCreated);
+        setCreated(created.minusDays(1), older);
+
+        List<ItemRequest> requests = requestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(user1.getId());
+
+        assertEquals(List.of(sameCreated.getId(), request1.getId(), older.getId()),
+                requests.stream().map(ItemRequest::getId).collect(Collectors.toList()));
+    }
+
+    private void setCreated(LocalDateTime created, ItemRequest... requests) {
+        testEntityManager.flush();
+        for (ItemRequest request : requests) {
+            testEntityManager.getEntityManager()
+                    .createNativeQuery("UPDATE requests SET created = ?1 WHERE id = ?2")
+                    .setParameter(1, created)
+                    .setParameter(2, request.getId())
+                    .executeUpdate();
+        }
+        testEntityManager.clear();
+    }
+
 }
\ No newline at end of file
@@ -8,7 +8,9 @@ import org.mockito.Mock;
 import org.springframework.data.domain.PageRequest;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.RequestMapping;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -17,14 +19,24 @@ import ru.practicum.shareit.request.service.RequestServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.OffsetPageRequest;
+import ru.practicum.shareit.util.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +48,9 @@ class RequestServiceImplTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemRepository itemRepository;
+
     @InjectMocks
     private RequestServiceImpl requestService;
 
@@ -80,9 +95,11 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Тестирование получения запросов пользователя")
     void getUserRequests() {
+        item.setItemRequest(request);
         List<ItemRequestDto> expectedRequestsDto = List.of(RequestMapping.toRequestDto(request));
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
-        when(requestRepository.findAllByRequesterId(userDto.getId())).thenReturn(List.of(request));
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDescIdDesc(userDto.getId()))
+                .thenReturn(List.of(request));
+        when(itemRepository.findAllByItemRequestIdInOrderByIdAsc(List.of(request.getId()))).thenReturn(List.of(item));
 
         List<ItemRequestDto> actualRequestsDto = requestService.getUserRequests(userDto.getId());
 
@@ -92,22 +109,72 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Тестирование получения всех запросов")
     void getAllRequests() {
+        item.setItemRequest(request);
         List<ItemRequestDto> expectedRequestsDto = List.of(RequestMapping.toRequestDto(request));
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
-        when(requestRepository.findAllByRequester_IdNotOrderByCreatedDesc(anyLong(), any(PageRequest.class)))
+        when(requestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(anyLong(), any(PageRequest.class)))
                 .thenReturn(List.of( request));
+        when(itemRepository.findAllByItemRequestIdInOrderByIdAsc(List.of(request.getId()))).thenReturn(List.of(item));
 
-        List<ItemRequestDto> actualRequestsDto = requestService.getAllRequests(userDto.getId(), 0, 10);
+        List<ItemRequestDto> actualRequestsDto = requestService.getAllRequests(userDto.getId(), 0, 10, null)
+                .getItems();
 
         assertEquals(expectedRequestsDto, actualRequestsDto);
     }
 
+    @Test
+    @DisplayName("Тестирование постраничного получения запросов по курсору")
+    void getAllRequests_whenCursorGiven_thenSeekAfterIt() {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0, 0, 123_000);
+        ItemRequest newer = ItemRequest.builder().id(5L).description("newer").created(created).build();
+        ItemRequest older = ItemRequest.builder().id(4L).description("older").created(created).build();
+        when(requestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(1L, OffsetPageRequest.ofOffset(3, 2)))
+                .thenReturn(List.of(newer, older));
+        when(requestRepository.findAllByRequesterIdNotBefore(eq(1L), eq(created), eq(5L), any(PageRequest.class)))
+                .thenReturn(List.of(older));
+
+        CursorPage<ItemRequestDto> firstPage = requestService.getAllRequests(1L, 3, 1, null);
+        CursorPage<ItemRequestDto> nextPage = requestService.getAllRequests(1L, 3, 1, firstPage.getNextCursor());
+
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals(5L, firstPage.getItems().get(0).getId());
+        assertEquals(PageCursor.of(created, 5L).encode(), firstPage.getNextCursor());
+        assertEquals(4L, nextPage.getItems().get(0).getId());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Тестирование распределения вещей по запросам страницы")
+    void getAllRequests_whenSeveralRequests_thenItemsLoadedOnceAndGrouped() {
+        ItemRequest other = ItemRequest.builder().id(2L).description("other").build();
+        Item otherItem = Item.builder().id(2L).name("other item").description("description").available(true)
+                .itemRequest(other).build();
+        item.setItemRequest(request);
+        when(requestRepository.findAllByRequester_IdNotOrderByCreatedDescIdDesc(anyLong(), any(PageRequest.class)))
+                .thenReturn(List.of(request, other));
+        when(itemRepository.findAllByItemRequestIdInOrderByIdAsc(List.of(1L, 2L)))
+                .thenReturn(List.of(item, otherItem));
+
+        List<ItemRequestDto> requests = requestService.getAllRequests(userDto.getId(), 0, 10, null).getItems();
+
+        assertEquals(List.of(1L), requests.get(0).getItems().stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(2L), requests.get(1).getItems().stream().map(ItemDto::getId).collect(Collectors.toList()));
+        verify(itemRepository, times(1)).findAllByItemRequestIdInOrderByIdAsc(any());
+    }
+
+    @Test
+    @DisplayName("Тестирование получения запросов с некорректным курсором")
+    void getAllRequests_whenCursorIsInvalid_thenThrowValidationException() {
+        assertThrows(ValidationException.class,
+                () -> requestService.getAllRequests(1L, 0, 10, PageCursor.of(1L).encode()));
+        assertThrows(ValidationException.class,
+                () -> requestService.getAllRequests(1L, 0, 10, "не курсор"));
+    }
+
     @Test
     @DisplayName("Тестирование получения запроса по Id")
     void getRequestById() {
         ItemRequestDto expectedRequestDto = RequestMapping.toRequestDto(request);
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
-        when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
+        when(requestRepository.findWithItemsById(request.getId())).thenReturn(Optional.of(request));
 
         ItemRequestDto actualRequestDto = requestService.getRequestById(userDto.getId(), request.getId());
 
@@ -117,8 +184,7 @@ class RequestServiceImplTest {
     @Test
     @DisplayName("Тестирование получения запроса по несуществующему Id")
     void getRequestById_whenRequestIdIsNotValid_thenThrowObjectNotFoundException() {
-        when(userService.getUserById(user.getId())).thenReturn(userDto);
-        when(requestRepository.findById(request.getId())).thenReturn(Optional.empty());
+        when(requestRepository.findWithItemsById(request.getId())).thenReturn(Optional.empty());
 
         NotFoundException requestNotFoundException = assertThrows(NotFoundException.class,
                 () -> requestService.getRequestById(userDto.getId(), request.getId()));
@@ -0,0 +1,76 @@
+package shareit.user;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.user.cache.KnownEmails;
+import ru.practicum.shareit.user.dto.UserEmailView;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.BloomFilter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KnownEmailsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Тестирование фильтра адресов до и после загрузки")
+    void mightExist_whenLoaded_thenUseFilter() {
+        KnownEmails knownEmails = new KnownEmails(userRepository, 1000, 0.01);
+        when(userRepository.findEmails(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(emailView(1L, "User@Email.com")));
+
+        assertTrue(knownEmails.mightExist("other@email.com"));
+
+        knownEmails.load();
+
+        assertTrue(knownEmails.mightExist("user@email.COM"));
+        assertFalse(knownEmails.mightExist("other@email.com"));
+    }
+
+    @Test
+    @DisplayName("Тестирование доли ложных срабатываний фильтра Блума на миллионе адресов")
+    void bloomFilter_whenMillionEmails_thenFalsePositiveRateIsLow() {
+        int count = 1_000_000;
+        BloomFilter filter = new BloomFilter(count, 0.01);
+        for (int i = 0; i < count; i++) {
+            filter.put("user" + i + "@email.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@email.com"));
+            if (filter.mightContain("other" + i + "@email.com")) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 1_500, "Ложных срабатываний: " + falsePositives);
+    }
+
+    private UserEmailView emailView(Long id, String email) {
+        return new UserEmailView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
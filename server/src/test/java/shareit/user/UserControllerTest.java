@@ -123,6 +123,7 @@ class UserControllerTest {
     @DisplayName("Тестирование получения пользователя по Id")
     void get() {
         long userId = 0L;
+        when(userService.getUserETag(userId)).thenReturn("v0");
 
         mockMvc.perform(MockMvcRequestBuilders.get("/users/{userId}", userId))
                 .andDo(print())
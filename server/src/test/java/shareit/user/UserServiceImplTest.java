@@ -1,5 +1,6 @@
 package shareit.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,20 +8,26 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.cache.KnownEmails;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.validation.ValidationException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +36,14 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private KnownEmails knownEmails;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(5), meterRegistry);
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -179,4 +194,85 @@ class UserServiceImplTest {
         assertEquals(userNotFoundException.getMessage(), String.format("Пользователь с id: %s не найден!", userId));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Тестирование повторного получения пользователя из кэша")
+    void getUserById_whenCalledTwice_thenLoadOnce() {
+        long userId = 1L;
+        User user = User.builder().id(userId).name("name").email("email@email.com").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        userService.getUserById(userId);
+        UserDto cachedUserDto = userService.getUserById(userId);
+        cachedUserDto.setName("changed");
+
+        assertEquals("name", userService.getUserById(userId).getName());
+        verify(userRepository, times(1)).findById(userId);
+        assertEquals(2, userCache.stats().hitCount());
+        assertEquals(1, userCache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Тестирование сброса кэша при обновлении пользователя")
+    void updateUser_thenInvalidateCache() {
+        long userId = 1L;
+        User user = User.builder().id(userId).name("name").email("email@email.com").build();
+        User updatedUser = User.builder().id(userId).name("name1").email("email@email.com").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user), Optional.of(updatedUser));
+        when(userRepository.save(updatedUser)).thenReturn(updatedUser);
+
+        userService.getUserById(userId);
+        userService.update(userId, UserDto.builder().name("name1").build());
+
+        assertEquals("name1", userService.getUserById(userId).getName());
+        verify(userCache).invalidate(userId);
+    }
+
+    @Test
+    @DisplayName("Тестирование проверки существования пользователя")
+    void checkExists_whenUserCached_thenDoNotQuery() {
+        long userId = 1L;
+        when(userRepository.findById(userId))
+                .thenReturn(Optional.of(User.builder().id(userId).name("name").email("email@email.com").build()));
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        userService.getUserById(userId);
+
+        assertDoesNotThrow(() -> userService.checkExists(userId));
+        assertThrows(NotFoundException.class, () -> userService.checkExists(2L));
+        verify(userRepository, never()).existsById(userId);
+        assertEquals(1.0, meterRegistry.get("cache.size").tag("cache", "shareit.users").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Тестирование обновления почты, которой точно нет в фильтре")
+    void updateUser_whenEmailIsUnknown_thenDoNotQueryEmail() {
+        long userId = 1L;
+        User user = User.builder().id(userId).name("name").email("email@email.com").build();
+        User updatedUser = User.builder().id(userId).name("name").email("new@email.com").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(knownEmails.mightExist("new@email.com")).thenReturn(false);
+        when(userRepository.save(updatedUser)).thenReturn(updatedUser);
+
+        userService.update(userId, UserDto.builder().email("new@email.com").build());
+
+        verify(userRepository, never()).isEmailTaken(anyString(), anyLong());
+        verify(userRepository, never()).findAll();
+        verify(knownEmails).add("new@email.com");
+    }
+
+    @Test
+    @DisplayName("Тестирование обновления на почту другого пользователя")
+    void updateUser_whenEmailIsTaken_thenThrowValidationException() {
+        long userId = 1L;
+        User user = User.builder().id(userId).name("name").email("email@email.com").build();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(knownEmails.mightExist("Other@Email.com")).thenReturn(true);
+        when(userRepository.isEmailTaken("Other@Email.com", userId)).thenReturn(true);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> userService.update(userId, UserDto.builder().email("Other@Email.com").build()));
+
+        assertEquals("Адрес электронной почты уже существует.", exception.getMessage());
+        verify(userRepository, never()).save(any(User.class));
+    }
+}